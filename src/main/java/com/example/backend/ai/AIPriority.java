@@ -0,0 +1,23 @@
+package com.example.backend.ai;
+
+// Scheduling lanes for AI provider calls, highest priority first. Short
+// interactive requests are dispatched ahead of long-form generation.
+public enum AIPriority {
+    INTERACTIVE,
+    STANDARD,
+    BULK;
+
+    public static AIPriority forContentType(String contentType) {
+        switch (contentType != null ? contentType.toLowerCase() : "") {
+            case "explanation":
+            case "image_prompt":
+                return INTERACTIVE;
+
+            case "story":
+                return BULK;
+
+            default:
+                return STANDARD;
+        }
+    }
+}
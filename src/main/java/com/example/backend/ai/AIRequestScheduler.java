@@ -0,0 +1,273 @@
+package com.example.backend.ai;
+
+import com.example.backend.models.ai.AILaneStatistics;
+import com.example.backend.models.ai.AISchedulerStatistics;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Admission control for AI provider calls. A call is dispatched only while
+// fewer than maxInFlight calls are running and the token bucket (refilled at
+// tokensPerMinute) covers its estimated cost. Waiting calls are queued per
+// priority lane and always dispatched from the highest non-empty lane, so a
+// backlog of long stories never delays an interactive explanation.
+public class AIRequestScheduler {
+
+    private static final AIPriority[] LANES = AIPriority.values();
+
+    private final int maxInFlight;
+    private final int maxQueueSize;
+    private final long tokensPerMinute;
+    private final Scheduler timer;
+
+    private final ArrayDeque<Ticket>[] queues;
+    private final long[] dispatched;
+    private final long[] totalWaitNanos;
+    private final long[] maxWaitNanos;
+
+    private int inFlight;
+    private int queued;
+    private double availableTokens;
+    private long lastRefillNanos;
+    private boolean refillScheduled;
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public AIRequestScheduler(int maxInFlight, int maxQueueSize, long tokensPerMinute, Scheduler timer) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        this.maxQueueSize = maxQueueSize;
+        this.tokensPerMinute = tokensPerMinute;
+        this.timer = timer;
+        this.queues = new ArrayDeque[LANES.length];
+        for (int i = 0; i < LANES.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+        this.dispatched = new long[LANES.length];
+        this.totalWaitNanos = new long[LANES.length];
+        this.maxWaitNanos = new long[LANES.length];
+        this.availableTokens = tokensPerMinute;
+        this.lastRefillNanos = timer.now(TimeUnit.NANOSECONDS);
+    }
+
+    public AIRequestScheduler(int maxInFlight, int maxQueueSize, long tokensPerMinute) {
+        this(maxInFlight, maxQueueSize, tokensPerMinute, Schedulers.parallel());
+    }
+
+    public <T> Mono<T> schedule(AIPriority priority, int estimatedTokens, Mono<T> call) {
+        return scheduleStream(priority, estimatedTokens, call).next();
+    }
+
+    // The call is subscribed only once it is admitted; cancelling while queued
+    // simply removes it from its lane
+    public <T> Flux<T> scheduleStream(AIPriority priority, int estimatedTokens, Publisher<T> call) {
+        return Flux.create(sink -> {
+            Ticket ticket = new Ticket(priority, estimatedTokens, () -> start(call, sink));
+            sink.onDispose(ticket::cancel);
+            submittedCount.increment();
+            if (!enqueue(ticket)) {
+                rejectedCount.increment();
+                sink.error(new RejectedExecutionException(
+                        "AI request queue is full (" + maxQueueSize + " pending)"));
+                return;
+            }
+            drain();
+        });
+    }
+
+    private <T> Disposable start(Publisher<T> call, FluxSink<T> sink) {
+        return Flux.from(call)
+                .doFinally(signal -> release())
+                .subscribe(sink::next, sink::error, sink::complete);
+    }
+
+    private synchronized boolean enqueue(Ticket ticket) {
+        if (maxQueueSize > 0 && queued >= maxQueueSize) {
+            return false;
+        }
+        queues[ticket.priority.ordinal()].addLast(ticket);
+        queued++;
+        return true;
+    }
+
+    private void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        completedCount.increment();
+        drain();
+    }
+
+    // Admission decisions are taken under the lock, but admitted calls are
+    // started outside it since a stubbed or cached call may complete inline
+    private void drain() {
+        List<Ticket> admitted = new ArrayList<>();
+        long delayNanos = -1;
+
+        synchronized (this) {
+            refill();
+            while (inFlight < maxInFlight) {
+                Ticket next = peekNext();
+                if (next == null) {
+                    break;
+                }
+                double cost = costOf(next);
+                if (tokensPerMinute > 0 && cost > availableTokens) {
+                    if (!refillScheduled) {
+                        refillScheduled = true;
+                        delayNanos = (long) Math.ceil((cost - availableTokens) * 60_000_000_000d / tokensPerMinute);
+                    }
+                    break;
+                }
+                pollNext();
+                if (tokensPerMinute > 0) {
+                    availableTokens -= cost;
+                }
+                inFlight++;
+
+                int lane = next.priority.ordinal();
+                long waited = System.nanoTime() - next.enqueuedAt;
+                dispatched[lane]++;
+                totalWaitNanos[lane] += waited;
+                maxWaitNanos[lane] = Math.max(maxWaitNanos[lane], waited);
+                admitted.add(next);
+            }
+        }
+
+        for (Ticket ticket : admitted) {
+            ticket.start();
+        }
+
+        if (delayNanos >= 0) {
+            timer.schedule(() -> {
+                synchronized (this) {
+                    refillScheduled = false;
+                }
+                drain();
+            }, Math.max(delayNanos, 1_000_000L), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // The bucket follows the timer's clock, so refills and the delayed drain
+    // agree (and can be driven by a virtual-time scheduler in tests)
+    private void refill() {
+        if (tokensPerMinute <= 0) {
+            return;
+        }
+        long now = timer.now(TimeUnit.NANOSECONDS);
+        double refilled = Math.max(0, now - lastRefillNanos) * tokensPerMinute / 60_000_000_000d;
+        availableTokens = Math.min(tokensPerMinute, availableTokens + refilled);
+        lastRefillNanos = now;
+    }
+
+    // A single request larger than the whole budget waits for a full bucket
+    // instead of blocking its lane forever
+    private double costOf(Ticket ticket) {
+        return Math.min(ticket.estimatedTokens, tokensPerMinute);
+    }
+
+    private Ticket peekNext() {
+        for (ArrayDeque<Ticket> queue : queues) {
+            if (!queue.isEmpty()) {
+                return queue.peekFirst();
+            }
+        }
+        return null;
+    }
+
+    private void pollNext() {
+        for (ArrayDeque<Ticket> queue : queues) {
+            if (!queue.isEmpty()) {
+                queue.pollFirst();
+                queued--;
+                return;
+            }
+        }
+    }
+
+    public synchronized AISchedulerStatistics stats() {
+        refill();
+        List<AILaneStatistics> lanes = new ArrayList<>(LANES.length);
+        for (int i = 0; i < LANES.length; i++) {
+            long count = dispatched[i];
+            lanes.add(AILaneStatistics.builder()
+                    .priority(LANES[i].name())
+                    .queueDepth(queues[i].size())
+                    .dispatchedCount(count)
+                    .averageWaitMillis(count > 0 ? totalWaitNanos[i] / (count * 1_000_000d) : 0.0)
+                    .maxWaitMillis(maxWaitNanos[i] / 1_000_000d)
+                    .build());
+        }
+
+        return AISchedulerStatistics.builder()
+                .maxInFlight(maxInFlight)
+                .inFlight(inFlight)
+                .maxQueueSize(maxQueueSize)
+                .queueDepth(queued)
+                .tokensPerMinute(tokensPerMinute)
+                .availableTokens(tokensPerMinute > 0 ? (long) availableTokens : -1)
+                .submittedCount(submittedCount.sum())
+                .completedCount(completedCount.sum())
+                .rejectedCount(rejectedCount.sum())
+                .lanes(lanes)
+                .build();
+    }
+
+    private final class Ticket {
+        private final AIPriority priority;
+        private final int estimatedTokens;
+        private final long enqueuedAt = System.nanoTime();
+        private final Supplier<Disposable> starter;
+        private volatile boolean cancelled;
+        private volatile Disposable running;
+
+        private Ticket(AIPriority priority, int estimatedTokens, Supplier<Disposable> starter) {
+            this.priority = priority;
+            this.estimatedTokens = estimatedTokens;
+            this.starter = starter;
+        }
+
+        private void start() {
+            if (cancelled) {
+                // Cancelled between admission and start: hand the slot back
+                release();
+                return;
+            }
+            running = starter.get();
+            if (cancelled) {
+                running.dispose();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            Disposable current = running;
+            if (current != null) {
+                current.dispose();
+                return;
+            }
+            synchronized (AIRequestScheduler.this) {
+                if (queues[priority.ordinal()].remove(this)) {
+                    queued--;
+                }
+            }
+        }
+    }
+}
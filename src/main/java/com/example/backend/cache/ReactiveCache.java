@@ -0,0 +1,257 @@
+package com.example.backend.cache;
+
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.models.cache.CacheStatistics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Caches the resolved value of a Mono instead of the publisher itself, so a
+// cached entry never re-triggers the upstream call it came from. Concurrent
+// misses for the same key share a single in-flight load.
+//
+// With a refresh-after (soft TTL) shorter than the ttl (hard TTL), entries past
+// the soft TTL are still served while one background reload (the refresher,
+// which defaults to the loader) replaces them;
+// only entries past the hard TTL make callers wait for the loader. Such caches
+// also keep the last value loaded for each key, which is served when a reload
+// fails (e.g. the upstream circuit breaker is open).
+public class ReactiveCache<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCache.class);
+
+    private final String name;
+    private final long maximumSize;
+    private final Duration ttl;
+    private final Duration refreshAfter;
+    private final Cache<K, Entry<K, V>> cache;
+    private final Cache<K, V> lastKnownGood;
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder staleHitCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder refreshFailureCount = new LongAdder();
+    private final LongAdder fallbackCount = new LongAdder();
+
+    public ReactiveCache(String name, long maximumSize, Duration ttl) {
+        this(name, maximumSize, ttl, null);
+    }
+
+    public ReactiveCache(String name, long maximumSize, Duration ttl, Duration refreshAfter) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.ttl = ttl;
+        this.refreshAfter = refreshAfter != null && !refreshAfter.isZero() && refreshAfter.compareTo(ttl) < 0
+                ? refreshAfter
+                : null;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.lastKnownGood = this.refreshAfter != null
+                ? Caffeine.newBuilder().maximumSize(maximumSize).build()
+                : null;
+    }
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return get(key, loader, loader);
+    }
+
+    // The refresher replaces entries in the background once they are past the
+    // soft TTL. It should go to the source of truth: a loader that reads a local
+    // copy first (e.g. the H2 snapshot) would only ever reload that copy.
+    public Mono<V> get(K key, Function<K, Mono<V>> loader, Function<K, Mono<V>> refresher) {
+        return Mono.defer(() -> {
+            Entry<K, V> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                if (isStale(key)) {
+                    staleHitCount.increment();
+                    refreshInBackground(key, refresher);
+                }
+                return Mono.just(cached.value);
+            }
+            if (lastKnownGood == null) {
+                return load(key, loader, refresher);
+            }
+            return load(key, loader, refresher).onErrorResume(e -> !(e instanceof ResourceNotFoundException), e -> {
+                V fallback = lastKnownGood.getIfPresent(key);
+                if (fallback == null) {
+                    return Mono.error(e);
+                }
+                fallbackCount.increment();
+                log.debug("Serving last known value of {} from cache {}: {}", key, name, e.getMessage());
+                return Mono.just(fallback);
+            });
+        });
+    }
+
+    // Joining a running load and starting a new one happen atomically in the
+    // in-flight map. The cache is checked again there, so a miss racing with a
+    // load that has just finished is served the stored value instead of
+    // loading again.
+    private Mono<V> load(K key, Function<K, Mono<V>> loader, Function<K, Mono<V>> refresher) {
+        AtomicBoolean started = new AtomicBoolean();
+        Mono<V> pending = inFlight.computeIfAbsent(key, k -> {
+            if (cache.asMap().get(k) != null) {
+                return null;
+            }
+            started.set(true);
+            return newLoad(k, loader, refresher);
+        });
+        if (pending == null) {
+            Entry<K, V> cached = cache.asMap().get(key);
+            return cached != null ? Mono.just(cached.value) : load(key, loader, refresher);
+        }
+        if (!started.get()) {
+            coalescedCount.increment();
+        }
+        return pending;
+    }
+
+    private Mono<V> newLoad(K key, Function<K, Mono<V>> loader, Function<K, Mono<V>> refresher) {
+        // The refresher is only kept when the entry can be refreshed later
+        Function<K, Mono<V>> kept = refreshAfter != null ? refresher : null;
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> shared = Mono.defer(() -> loader.apply(key))
+                .doOnNext(value -> store(key, new Entry<>(value, kept)))
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+
+    // Starts a reload unless a load is already running; the stale value stays
+    // in place until it completes, and is kept if the reload fails
+    private boolean refreshInBackground(K key, Function<K, Mono<V>> refresher) {
+        AtomicBoolean started = new AtomicBoolean();
+        Mono<V> refresh = inFlight.computeIfAbsent(key, k -> {
+            started.set(true);
+            return newLoad(k, refresher, refresher);
+        });
+        if (!started.get()) {
+            return false;
+        }
+        refreshCount.increment();
+        refresh.subscribe(null, e -> {
+            refreshFailureCount.increment();
+            log.warn("Background refresh of {} in cache {} failed: {}", key, name, e.getMessage());
+        });
+        return true;
+    }
+
+    // Reloads the most frequently used entries that will be past the soft TTL
+    // within the given window, so hot keys never serve stale or miss
+    public int refreshHottest(int count, Duration window) {
+        if (refreshAfter == null || count <= 0) {
+            return 0;
+        }
+        long thresholdNanos = Math.max(0, refreshAfter.minus(window).toNanos());
+        Map<K, Entry<K, V>> hottest = cache.policy().eviction()
+                .map(eviction -> eviction.hottest(count))
+                .orElse(Map.of());
+
+        int refreshed = 0;
+        for (Map.Entry<K, Entry<K, V>> hot : hottest.entrySet()) {
+            Function<K, Mono<V>> refresher = hot.getValue().refresher;
+            if (refresher != null && ageNanos(hot.getKey()) >= thresholdNanos
+                    && refreshInBackground(hot.getKey(), refresher)) {
+                refreshed++;
+            }
+        }
+        return refreshed;
+    }
+
+    private boolean isStale(K key) {
+        return refreshAfter != null && ageNanos(key) >= refreshAfter.toNanos();
+    }
+
+    private long ageNanos(K key) {
+        OptionalLong age = cache.policy().expireAfterWrite()
+                .map(expiration -> expiration.ageOf(key, TimeUnit.NANOSECONDS))
+                .orElse(OptionalLong.empty());
+        return age.orElse(0L);
+    }
+
+    public V getIfPresent(K key) {
+        Entry<K, V> cached = cache.getIfPresent(key);
+        return cached != null ? cached.value : null;
+    }
+
+    public void put(K key, V value) {
+        store(key, new Entry<>(value, null));
+    }
+
+    private void store(K key, Entry<K, V> entry) {
+        cache.put(key, entry);
+        if (lastKnownGood != null) {
+            lastKnownGood.put(key, entry.value);
+        }
+    }
+
+    public void invalidate(K key) {
+        cache.invalidate(key);
+        if (lastKnownGood != null) {
+            lastKnownGood.invalidate(key);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        if (lastKnownGood != null) {
+            lastKnownGood.invalidateAll();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRefreshEnabled() {
+        return refreshAfter != null;
+    }
+
+    public CacheStatistics stats() {
+        CacheStats stats = cache.stats();
+        return CacheStatistics.builder()
+                .name(name)
+                .size(cache.estimatedSize())
+                .maximumSize(maximumSize)
+                .ttlSeconds(ttl.toSeconds())
+                .refreshAfterSeconds(refreshAfter != null ? refreshAfter.toSeconds() : 0)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .inFlightCount(inFlight.size())
+                .coalescedCount(coalescedCount.sum())
+                .staleHitCount(staleHitCount.sum())
+                .refreshCount(refreshCount.sum())
+                .refreshFailureCount(refreshFailureCount.sum())
+                .fallbackCount(fallbackCount.sum())
+                .build();
+    }
+
+    private static final class Entry<K, V> {
+        private final V value;
+        private final Function<K, Mono<V>> refresher;
+
+        private Entry(V value, Function<K, Mono<V>> refresher) {
+            this.value = value;
+            this.refresher = refresher;
+        }
+    }
+}
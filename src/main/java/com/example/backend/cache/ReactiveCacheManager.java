@@ -0,0 +1,63 @@
+package com.example.backend.cache;
+
+import com.example.backend.models.cache.CacheStatistics;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+public class ReactiveCacheManager {
+
+    private static final String PROPERTY_PREFIX = "cache.";
+
+    private final Environment environment;
+    private final Map<String, ReactiveCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    public ReactiveCacheManager(Environment environment) {
+        this.environment = environment;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <K, V> ReactiveCache<K, V> getCache(String name) {
+        return (ReactiveCache<K, V>) caches.computeIfAbsent(name, this::createCache);
+    }
+
+    public List<CacheStatistics> getStatistics() {
+        return caches.values().stream()
+                .map(ReactiveCache::stats)
+                .sorted(Comparator.comparing(CacheStatistics::getName))
+                .collect(Collectors.toList());
+    }
+
+    // Refreshes the hottest entries of every cache with a soft TTL; returns how
+    // many reloads were started
+    public int refreshHottest(Duration window) {
+        int refreshed = 0;
+        for (ReactiveCache<?, ?> cache : caches.values()) {
+            if (cache.isRefreshEnabled()) {
+                refreshed += cache.refreshHottest(refreshAheadCount(cache.getName()), window);
+            }
+        }
+        return refreshed;
+    }
+
+    private ReactiveCache<?, ?> createCache(String name) {
+        // Per-cache settings (cache.<name>.*) fall back to cache.default.*
+        long maximumSize = environment.getProperty(PROPERTY_PREFIX + name + ".maximum-size", Long.class,
+                environment.getProperty(PROPERTY_PREFIX + "default.maximum-size", Long.class, 500L));
+        Duration ttl = environment.getProperty(PROPERTY_PREFIX + name + ".ttl", Duration.class,
+                environment.getProperty(PROPERTY_PREFIX + "default.ttl", Duration.class, Duration.ofHours(1)));
+        Duration refreshAfter = environment.getProperty(PROPERTY_PREFIX + name + ".refresh-after", Duration.class,
+                environment.getProperty(PROPERTY_PREFIX + "default.refresh-after", Duration.class));
+        return new ReactiveCache<>(name, maximumSize, ttl, refreshAfter);
+    }
+
+    private int refreshAheadCount(String name) {
+        return environment.getProperty(PROPERTY_PREFIX + name + ".refresh-ahead-count", Integer.class,
+                environment.getProperty(PROPERTY_PREFIX + "default.refresh-ahead-count", Integer.class, 0));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.config;
 
+import com.example.backend.ai.AIRequestScheduler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,4 +38,12 @@ public class AIConfig {
                                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                                 .build();
         }
-}
\ No newline at end of file
+
+        @Bean
+        public AIRequestScheduler aiRequestScheduler(
+                        @Value("${ai.scheduler.max-in-flight:4}") int maxInFlight,
+                        @Value("${ai.scheduler.max-queue-size:200}") int maxQueueSize,
+                        @Value("${ai.scheduler.tokens-per-minute:60000}") long tokensPerMinute) {
+                return new AIRequestScheduler(maxInFlight, maxQueueSize, tokensPerMinute);
+        }
+}
@@ -1,25 +1,15 @@
 package com.example.backend.config;
 
-import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import com.example.backend.cache.ReactiveCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 @Configuration
-@EnableCaching
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(
-                "pokemonByName",
-                "pokemonById",
-                "pokemonList",
-                "species",
-                "evolutionChain",
-                "type",
-                "move",
-                "generation");
+    public ReactiveCacheManager reactiveCacheManager(Environment environment) {
+        return new ReactiveCacheManager(environment);
     }
-}
\ No newline at end of file
+}
@@ -1,26 +1,157 @@
 package com.example.backend.config;
 
+import com.example.backend.http.CircuitBreaker;
+import com.example.backend.http.CircuitBreakerRegistry;
+import com.example.backend.http.ConnectionPoolMetricsRegistry;
+import com.example.backend.http.ProjectionJsonDecoder;
+import com.example.backend.models.evolution.EvolutionChain;
+import com.example.backend.models.move.Move;
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonSpecies;
+import com.example.backend.models.pokemon.PokemonType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
 
+    @Value("${pokeapi.base-url:https://pokeapi.co/api/v2}")
+    private String baseUrl;
+
+    @Value("${pokeapi.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${pokeapi.http.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${pokeapi.http.pending-acquire-timeout:10s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${pokeapi.http.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${pokeapi.http.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${pokeapi.http.evict-in-background:30s}")
+    private Duration evictInBackground;
+
+    @Value("${pokeapi.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${pokeapi.http.read-timeout:30s}")
+    private Duration readTimeout;
+
+    @Value("${pokeapi.http.write-timeout:10s}")
+    private Duration writeTimeout;
+
+    @Value("${pokeapi.http.http2-enabled:true}")
+    private boolean http2Enabled;
+
+    @Value("${pokeapi.http.compression-enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${pokeapi.http.max-in-memory-size:1MB}")
+    private DataSize maxInMemorySize;
+
+    @Value("${pokeapi.circuit-breaker.call-timeout:5s}")
+    private Duration breakerCallTimeout;
+
+    @Value("${pokeapi.circuit-breaker.window-size:20}")
+    private int breakerWindowSize;
+
+    @Value("${pokeapi.circuit-breaker.minimum-calls:10}")
+    private int breakerMinimumCalls;
+
+    @Value("${pokeapi.circuit-breaker.failure-rate-threshold:0.5}")
+    private double breakerFailureRateThreshold;
+
+    @Value("${pokeapi.circuit-breaker.slow-call-rate-threshold:0.5}")
+    private double breakerSlowCallRateThreshold;
+
+    @Value("${pokeapi.circuit-breaker.slow-call-duration:2s}")
+    private Duration breakerSlowCallDuration;
+
+    @Value("${pokeapi.circuit-breaker.open-duration:30s}")
+    private Duration breakerOpenDuration;
+
+    @Value("${pokeapi.circuit-breaker.half-open-calls:3}")
+    private int breakerHalfOpenCalls;
+
     @Bean
-    public WebClient.Builder webClientBuilder() {
+    public ConnectionPoolMetricsRegistry connectionPoolMetricsRegistry() {
+        return new ConnectionPoolMetricsRegistry();
+    }
+
+    @Bean
+    public CircuitBreakerRegistry pokeApiCircuitBreakers() {
+        return new CircuitBreakerRegistry(baseUrl, breakerCallTimeout, route -> new CircuitBreaker(route,
+                breakerWindowSize, breakerMinimumCalls, breakerFailureRateThreshold, breakerSlowCallRateThreshold,
+                breakerSlowCallDuration, breakerOpenDuration, breakerHalfOpenCalls));
+    }
+
+    // One bounded pool for every PokeAPI-facing service; idle and long-lived
+    // connections are evicted in the background instead of on acquire
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider pokeApiConnectionProvider(ConnectionPoolMetricsRegistry metricsRegistry) {
+        return ConnectionProvider.builder("pokeapi")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .metrics(true, () -> metricsRegistry)
+                .build();
+    }
+
+    @Bean(name = "pokeApiWebClient")
+    public WebClient pokeApiWebClient(ConnectionProvider pokeApiConnectionProvider, ObjectMapper objectMapper,
+            CircuitBreakerRegistry pokeApiCircuitBreakers) {
+        // Detail resources are decoded as they stream in and only keep the fields
+        // the models declare, so the buffer limit only has to fit list responses
+        ProjectionJsonDecoder projectionDecoder = new ProjectionJsonDecoder(objectMapper,
+                Set.of(Pokemon.class, PokemonSpecies.class, PokemonType.class, Move.class, EvolutionChain.class));
         ExchangeStrategies strategies = ExchangeStrategies.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
+                .codecs(configurer -> {
+                    configurer.customCodecs().register(projectionDecoder);
+                    configurer.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes());
+                })
                 .build();
 
-        HttpClient httpClient = HttpClient.create()
-                .responseTimeout(java.time.Duration.ofSeconds(30));
+        // HTTP/2 is negotiated over TLS (ALPN), falling back to HTTP/1.1; plain
+        // http base URLs (e.g. a local stub) stay on HTTP/1.1
+        boolean http2 = http2Enabled && baseUrl.startsWith("https");
+        HttpClient httpClient = HttpClient.create(pokeApiConnectionProvider)
+                .protocol(http2
+                        ? new HttpProtocol[] { HttpProtocol.H2, HttpProtocol.HTTP11 }
+                        : new HttpProtocol[] { HttpProtocol.HTTP11 })
+                .compress(compressionEnabled)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout)
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new WriteTimeoutHandler(writeTimeout.toMillis(), TimeUnit.MILLISECONDS)));
 
         return WebClient.builder()
+                .baseUrl(baseUrl)
                 .exchangeStrategies(strategies)
-                .clientConnector(new ReactorClientHttpConnector(httpClient));
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(pokeApiCircuitBreakers.filter())
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,12 @@
 package com.example.backend.controller;
 
 import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.search.PokemonSearchQuery;
 import com.example.backend.service.AdvancedSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -21,20 +24,61 @@ public class AdvancedSearchController {
     }
 
     @GetMapping("/types")
-    public Flux<Pokemon> searchByTypes(@RequestParam List<String> types) {
-        return searchService.searchPokemonsByTypes(types);
+    public Flux<Pokemon> searchByTypes(
+            @RequestParam List<String> types,
+            @RequestParam(required = false) List<String> exclude,
+            @RequestParam(defaultValue = "all") String match) {
+        return searchService.searchPokemonsByTypes(types, exclude, !"any".equalsIgnoreCase(match));
     }
 
     @GetMapping("/sort")
     public Flux<Pokemon> sortPokemon(
             @RequestParam String attribute,
-            @RequestParam(defaultValue = "true") boolean ascending) {
-        return searchService.getPokemonSortedByAttribute(attribute, ascending);
+            @RequestParam(defaultValue = "true") boolean ascending,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
+        return searchService.getPokemonSortedByAttribute(attribute, ascending, limit, offset)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    @GetMapping("/filter")
+    public Flux<Pokemon> filterPokemon(
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) Integer minHeight,
+            @RequestParam(required = false) Integer maxHeight,
+            @RequestParam(required = false) Integer minWeight,
+            @RequestParam(required = false) Integer maxWeight,
+            @RequestParam(required = false) Integer minBaseExperience,
+            @RequestParam(required = false) Integer maxBaseExperience,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "true") boolean ascending,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
+        PokemonSearchQuery query = PokemonSearchQuery.builder()
+                .types(types)
+                .minHeight(minHeight)
+                .maxHeight(maxHeight)
+                .minWeight(minWeight)
+                .maxWeight(maxWeight)
+                .minBaseExperience(minBaseExperience)
+                .maxBaseExperience(maxBaseExperience)
+                .sortBy(sortBy)
+                .ascending(ascending)
+                .limit(limit)
+                .offset(offset)
+                .build();
+        return searchService.search(query)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
     }
 
     @GetMapping("/random")
     public Mono<Pokemon> getRandomPokemon(
-            @RequestParam(defaultValue = "898") int maxId) {
-        return searchService.getRandomPokemon(maxId);
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String generation,
+            @RequestParam(required = false) Boolean legendary,
+            @RequestParam(required = false) Integer maxId) {
+        return searchService.getRandomPokemon(type, generation, legendary, maxId);
     }
 }
\ No newline at end of file
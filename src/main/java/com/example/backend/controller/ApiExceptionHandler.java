@@ -0,0 +1,36 @@
+package com.example.backend.controller;
+
+import com.example.backend.exception.IndexNotReadyException;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.exception.UpstreamUnavailableException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+// Unknown resources become 404 instead of surfacing as 500s, whether they were
+// rejected locally or reported missing by the PokeAPI
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ProblemDetail handleNotFound(ResourceNotFoundException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, e.getMessage());
+    }
+
+    @ExceptionHandler(WebClientResponseException.NotFound.class)
+    public ProblemDetail handleUpstreamNotFound(WebClientResponseException.NotFound e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, "Recurso não encontrado na PokeAPI");
+    }
+
+    @ExceptionHandler(IndexNotReadyException.class)
+    public ProblemDetail handleIndexNotReady(IndexNotReadyException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ProblemDetail handleUpstreamUnavailable(UpstreamUnavailableException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+}
@@ -2,9 +2,15 @@ package com.example.backend.controller;
 
 import com.example.backend.models.content.GeneratedContent;
 import com.example.backend.models.content.GenerationRequest;
+import com.example.backend.models.content.WarmupProgress;
 import com.example.backend.service.ContentGenerationService;
+import com.example.backend.service.PokedexWarmupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -14,10 +20,13 @@ import java.util.List;
 public class ContentGenerationController {
 
     private final ContentGenerationService contentGenerationService;
+    private final PokedexWarmupService warmupService;
 
     @Autowired
-    public ContentGenerationController(ContentGenerationService contentGenerationService) {
+    public ContentGenerationController(ContentGenerationService contentGenerationService,
+            PokedexWarmupService warmupService) {
         this.contentGenerationService = contentGenerationService;
+        this.warmupService = warmupService;
     }
 
     @GetMapping("/story")
@@ -27,7 +36,8 @@ public class ContentGenerationController {
             @RequestParam(required = false) String tone,
             @RequestParam(required = false) String format,
             @RequestParam(required = false) Integer maxLength,
-            @RequestParam(required = false, defaultValue = "false") Boolean includeImagePrompt) {
+            @RequestParam(required = false, defaultValue = "false") Boolean includeImagePrompt,
+            @RequestParam(required = false, defaultValue = "false") Boolean deterministic) {
 
         GenerationRequest request = GenerationRequest.builder()
                 .contentType("story")
@@ -37,6 +47,7 @@ public class ContentGenerationController {
                 .format(format)
                 .maxLength(maxLength)
                 .includeImagePrompt(includeImagePrompt)
+                .deterministic(deterministic)
                 .build();
 
         return contentGenerationService.generateContent(request);
@@ -49,7 +60,8 @@ public class ContentGenerationController {
             @RequestParam(required = false) String tone,
             @RequestParam(required = false) String format,
             @RequestParam(required = false) Integer maxLength,
-            @RequestParam(required = false, defaultValue = "false") Boolean includeImagePrompt) {
+            @RequestParam(required = false, defaultValue = "false") Boolean includeImagePrompt,
+            @RequestParam(required = false, defaultValue = "true") Boolean deterministic) {
 
         GenerationRequest request = GenerationRequest.builder()
                 .contentType("pokedex")
@@ -59,11 +71,25 @@ public class ContentGenerationController {
                 .format(format)
                 .maxLength(maxLength)
                 .includeImagePrompt(includeImagePrompt)
+                .deterministic(deterministic)
                 .build();
 
         return contentGenerationService.generateContent(request);
     }
 
+    @PostMapping("/pokedex/warmup")
+    public ResponseEntity<String> startPokedexWarmup() {
+        if (!warmupService.tryStart()) {
+            return ResponseEntity.status(409).body("Pokédex warm-up is already running");
+        }
+        return ResponseEntity.accepted().body("Pokédex warm-up started");
+    }
+
+    @GetMapping("/pokedex/warmup")
+    public WarmupProgress getPokedexWarmupProgress() {
+        return warmupService.getProgress();
+    }
+
     @GetMapping("/strategy")
     public Mono<GeneratedContent> generateStrategy(
             @RequestParam(required = false) String team,
@@ -72,7 +98,8 @@ public class ContentGenerationController {
             @RequestParam(required = false) String tone,
             @RequestParam(required = false) String format,
             @RequestParam(required = false) Integer maxLength,
-            @RequestParam(required = false, defaultValue = "false") Boolean includeImagePrompt) {
+            @RequestParam(required = false, defaultValue = "false") Boolean includeImagePrompt,
+            @RequestParam(required = false, defaultValue = "false") Boolean deterministic) {
 
         GenerationRequest.GenerationRequestBuilder builder = GenerationRequest.builder()
                 .contentType("strategy")
@@ -80,7 +107,8 @@ public class ContentGenerationController {
                 .tone(tone)
                 .format(format)
                 .maxLength(maxLength)
-                .includeImagePrompt(includeImagePrompt);
+                .includeImagePrompt(includeImagePrompt)
+                .deterministic(deterministic);
 
         // Parse either team or single pokemon
         if (team != null && !team.isEmpty()) {
@@ -97,8 +125,90 @@ public class ContentGenerationController {
         return contentGenerationService.generateContent(builder.build());
     }
 
+    @GetMapping(value = "/story/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamStory(
+            @RequestParam String pokemon,
+            @RequestParam(required = false) String targetAudience,
+            @RequestParam(required = false) String tone,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Integer maxLength) {
+
+        GenerationRequest request = GenerationRequest.builder()
+                .contentType("story")
+                .pokemonName(pokemon)
+                .targetAudience(targetAudience)
+                .tone(tone)
+                .format(format)
+                .maxLength(maxLength)
+                .build();
+
+        return toServerSentEvents(contentGenerationService.streamContent(request));
+    }
+
+    @GetMapping(value = "/pokedex/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamPokedexEntry(
+            @RequestParam String pokemon,
+            @RequestParam(required = false) String targetAudience,
+            @RequestParam(required = false) String tone,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Integer maxLength) {
+
+        GenerationRequest request = GenerationRequest.builder()
+                .contentType("pokedex")
+                .pokemonName(pokemon)
+                .targetAudience(targetAudience)
+                .tone(tone)
+                .format(format)
+                .maxLength(maxLength)
+                .build();
+
+        return toServerSentEvents(contentGenerationService.streamContent(request));
+    }
+
+    @GetMapping(value = "/strategy/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamStrategy(
+            @RequestParam(required = false) String team,
+            @RequestParam(required = false) String pokemon,
+            @RequestParam(required = false) String targetAudience,
+            @RequestParam(required = false) String tone,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) Integer maxLength) {
+
+        GenerationRequest.GenerationRequestBuilder builder = GenerationRequest.builder()
+                .contentType("strategy")
+                .targetAudience(targetAudience)
+                .tone(tone)
+                .format(format)
+                .maxLength(maxLength);
+
+        // Parse either team or single pokemon
+        if (team != null && !team.isEmpty()) {
+            String[] teamMembers = team.split(",");
+            List<String> pokemonNames = new java.util.ArrayList<>();
+            for (String member : teamMembers) {
+                pokemonNames.add(member.trim());
+            }
+            builder.teamMembers(pokemonNames);
+        } else if (pokemon != null && !pokemon.isEmpty()) {
+            builder.pokemonName(pokemon);
+        }
+
+        return toServerSentEvents(contentGenerationService.streamContent(builder.build()));
+    }
+
     @PostMapping
     public Mono<GeneratedContent> generateContent(@RequestBody GenerationRequest request) {
         return contentGenerationService.generateContent(request);
     }
+
+    // Text chunks are sent as "content" events, followed by a final "done" event
+    private Flux<ServerSentEvent<String>> toServerSentEvents(Flux<String> chunks) {
+        return chunks
+                .map(chunk -> ServerSentEvent.builder(chunk).event("content").build())
+                .concatWithValues(ServerSentEvent.<String>builder().event("done").build())
+                .onErrorResume(e -> Flux.just(ServerSentEvent.<String>builder()
+                        .event("error")
+                        .data(e.getMessage() != null ? e.getMessage() : "Content generation failed")
+                        .build()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.backend.controller;
+
+import com.example.backend.cache.ReactiveCacheManager;
+import com.example.backend.http.CircuitBreakerRegistry;
+import com.example.backend.http.ConnectionPoolMetricsRegistry;
+import com.example.backend.models.ai.AISchedulerStatistics;
+import com.example.backend.models.cache.CacheStatistics;
+import com.example.backend.models.cache.CircuitBreakerStatistics;
+import com.example.backend.models.cache.ConnectionPoolStatistics;
+import com.example.backend.models.content.WarmupProgress;
+import com.example.backend.service.AIService;
+import com.example.backend.service.PokedexWarmupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private final ReactiveCacheManager cacheManager;
+    private final AIService aiService;
+    private final PokedexWarmupService warmupService;
+    private final ConnectionPoolMetricsRegistry connectionPoolMetrics;
+    private final CircuitBreakerRegistry circuitBreakers;
+
+    @Autowired
+    public MetricsController(ReactiveCacheManager cacheManager, AIService aiService,
+            PokedexWarmupService warmupService, ConnectionPoolMetricsRegistry connectionPoolMetrics,
+            CircuitBreakerRegistry circuitBreakers) {
+        this.cacheManager = cacheManager;
+        this.aiService = aiService;
+        this.warmupService = warmupService;
+        this.connectionPoolMetrics = connectionPoolMetrics;
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    @GetMapping("/caches")
+    public List<CacheStatistics> getCacheStatistics() {
+        return cacheManager.getStatistics();
+    }
+
+    @GetMapping("/ai-scheduler")
+    public AISchedulerStatistics getAISchedulerStatistics() {
+        return aiService.getSchedulerStatistics();
+    }
+
+    @GetMapping("/pokedex-warmup")
+    public WarmupProgress getPokedexWarmupProgress() {
+        return warmupService.getProgress();
+    }
+
+    @GetMapping("/connection-pools")
+    public List<ConnectionPoolStatistics> getConnectionPoolStatistics() {
+        return connectionPoolMetrics.getStatistics();
+    }
+
+    @GetMapping("/circuit-breakers")
+    public List<CircuitBreakerStatistics> getCircuitBreakerStatistics() {
+        return circuitBreakers.getStatistics();
+    }
+}
@@ -1,15 +1,21 @@
 package com.example.backend.controller;
 
 import com.example.backend.models.evolution.EvolutionChain;
+import com.example.backend.models.evolution.EvolutionLine;
 import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonBatchRequest;
+import com.example.backend.models.pokemon.PokemonBatchResult;
 import com.example.backend.models.pokemon.PokemonResponse;
 import com.example.backend.models.pokemon.PokemonSpecies;
+import com.example.backend.service.EvolutionGraphService;
 import com.example.backend.service.PokemonService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -18,10 +24,12 @@ import reactor.core.publisher.Mono;
 @Tag(name = "Pokemon", description = "API para operações relacionadas a Pokémon")
 public class PokemonController {
     private final PokemonService pokemonService;
+    private final EvolutionGraphService evolutionGraphService;
 
     @Autowired
-    public PokemonController(PokemonService pokemonService) {
+    public PokemonController(PokemonService pokemonService, EvolutionGraphService evolutionGraphService) {
         this.pokemonService = pokemonService;
+        this.evolutionGraphService = evolutionGraphService;
     }
 
     @GetMapping("/{name}")
@@ -36,6 +44,14 @@ public class PokemonController {
         return pokemonService.getPokemonById(id);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Buscar vários Pokémon de uma vez", description = "Retorna os Pokémon pedidos (IDs ou nomes) na ordem da requisição, com erro individual por item")
+    public Flux<PokemonBatchResult> getPokemonBatch(@RequestBody PokemonBatchRequest request) {
+        return pokemonService.getPokemonBatch(request.getPokemon())
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
     @GetMapping
     @Operation(summary = "Listar todos os Pokémon com detalhes", description = "Retorna uma lista paginada de Pokémon com todos os detalhes")
     public Flux<Pokemon> getAllPokemons(
@@ -67,20 +83,15 @@ public class PokemonController {
 
     @GetMapping("/{name}/evolution-chain")
     public Mono<EvolutionChain> getEvolutionChain(@PathVariable String name) {
-        return pokemonService.getPokemonSpeciesByName(name.toLowerCase())
-                .flatMap(species -> {
-                    if (species.getEvolutionChain() == null) {
-                        return Mono.error(new RuntimeException("Cadeia evolutiva não encontrada para: " + name));
-                    }
-
-                    String url = species.getEvolutionChain().getUrl();
-
-                    if (url == null || url.isEmpty()) {
-                        return Mono.error(new RuntimeException("URL da cadeia evolutiva não encontrada para: " + name));
-                    }
+        return evolutionGraphService.getEvolutionChain(name.toLowerCase());
+    }
 
-                    return pokemonService.getEvolutionChainByUrl(url);
-                });
+    @GetMapping("/{name}/evolutions")
+    @Operation(summary = "Buscar linha evolutiva", description = "Retorna a evolução anterior, as próximas e a linha completa de um Pokémon, opcionalmente com os dados de cada membro")
+    public Mono<EvolutionLine> getEvolutionLine(
+            @Parameter(description = "Nome da espécie") @PathVariable String name,
+            @Parameter(description = "Incluir dados completos de cada membro da linha") @RequestParam(defaultValue = "false") boolean hydrate) {
+        return evolutionGraphService.getEvolutionLine(name.toLowerCase(), hydrate);
     }
 
     @GetMapping("/type/{typeName}")
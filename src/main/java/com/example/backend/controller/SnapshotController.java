@@ -0,0 +1,41 @@
+package com.example.backend.controller;
+
+import com.example.backend.models.snapshot.SnapshotProgress;
+import com.example.backend.service.SnapshotIngestionService;
+import com.example.backend.service.SnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/snapshot")
+public class SnapshotController {
+
+    private final SnapshotService snapshotService;
+    private final SnapshotIngestionService ingestionService;
+
+    @Autowired
+    public SnapshotController(SnapshotService snapshotService, SnapshotIngestionService ingestionService) {
+        this.snapshotService = snapshotService;
+        this.ingestionService = ingestionService;
+    }
+
+    @PostMapping("/ingest")
+    public ResponseEntity<String> startIngestion() {
+        if (!ingestionService.tryStart()) {
+            return ResponseEntity.status(409).body("Snapshot ingestion is already running");
+        }
+        return ResponseEntity.accepted().body("Snapshot ingestion started");
+    }
+
+    @GetMapping("/progress")
+    public Mono<List<SnapshotProgress>> getProgress() {
+        return snapshotService.getProgress();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend.controller;
+
+import com.example.backend.models.comparison.ComparisonRequest;
+import com.example.backend.models.comparison.TeamAnalysis;
+import com.example.backend.service.TeamAnalysisService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/pokemon/team")
+public class TeamAnalysisController {
+
+    private final TeamAnalysisService teamAnalysisService;
+
+    @Autowired
+    public TeamAnalysisController(TeamAnalysisService teamAnalysisService) {
+        this.teamAnalysisService = teamAnalysisService;
+    }
+
+    @GetMapping("/analysis")
+    public Mono<TeamAnalysis> analyzeTeam(@RequestParam List<Long> ids) {
+        return analyze(ids);
+    }
+
+    @PostMapping("/analysis")
+    public Mono<TeamAnalysis> analyzeTeamWithOptions(@RequestBody ComparisonRequest request) {
+        return analyze(request.getPokemonIds());
+    }
+
+    private Mono<TeamAnalysis> analyze(List<Long> ids) {
+        return teamAnalysisService.analyzeTeam(ids)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+}
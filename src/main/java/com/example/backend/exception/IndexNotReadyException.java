@@ -0,0 +1,9 @@
+package com.example.backend.exception;
+
+// The in-memory search index is still being built and the query has no cheaper fallback; mapped to 503
+public class IndexNotReadyException extends RuntimeException {
+
+    public IndexNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.backend.exception;
+
+// A Pokémon, species or other PokeAPI resource that does not exist; mapped to 404
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+
+    public ResourceNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.backend.exception;
+
+// The PokeAPI route is failing or too slow and its circuit breaker is open; mapped to 503
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.backend.http;
+
+import com.example.backend.models.cache.CircuitBreakerStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Count-based circuit breaker for one upstream route. While CLOSED, the last
+// windowSize calls are tracked; once minimumCalls have been seen and either the
+// failure rate or the slow-call rate crosses its threshold, the breaker OPENs
+// and rejects calls for openDuration. It then goes HALF_OPEN and lets
+// halfOpenCalls trial calls through: all succeeding closes it again, any
+// failure reopens it.
+//
+// Every transition starts a new epoch; outcomes of calls admitted in an earlier
+// epoch are ignored so late responses cannot skew the new state.
+public class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int buffered;
+    private int failureCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long epoch;
+    private long openedAtNanos;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    private long rejectedCount;
+    private long openedCount;
+    private long halfOpenedCount;
+    private long closedCount;
+    private LocalDateTime lastTransitionAt;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+            double slowCallRateThreshold, Duration slowCallDuration, Duration openDuration, int halfOpenCalls) {
+        this.name = name;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.failed = new boolean[this.windowSize];
+        this.slow = new boolean[this.windowSize];
+    }
+
+    // Returns the epoch the call was admitted in, or -1 when it is rejected
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openNanos) {
+                rejectedCount++;
+                return -1;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenCalls) {
+                rejectedCount++;
+                return -1;
+            }
+            halfOpenInFlight++;
+        }
+        return epoch;
+    }
+
+    public synchronized void onResult(long admittedEpoch, boolean success, long durationNanos) {
+        if (admittedEpoch != epoch) {
+            return;
+        }
+        boolean isSlow = durationNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            if (!success || isSlow) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(!success, isSlow);
+            if (buffered >= minimumCalls
+                    && (failureRate() >= failureRateThreshold || slowCallRate() >= slowCallRateThreshold)) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    // A call that was admitted but never produced an outcome (e.g. cancelled)
+    public synchronized void release(long admittedEpoch) {
+        if (admittedEpoch == epoch && state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void record(boolean isFailure, boolean isSlow) {
+        if (buffered == windowSize) {
+            failureCount -= failed[next] ? 1 : 0;
+            slowCount -= slow[next] ? 1 : 0;
+        } else {
+            buffered++;
+        }
+        failed[next] = isFailure;
+        slow[next] = isSlow;
+        failureCount += isFailure ? 1 : 0;
+        slowCount += isSlow ? 1 : 0;
+        next = (next + 1) % windowSize;
+    }
+
+    private double failureRate() {
+        return buffered == 0 ? 0 : (double) failureCount / buffered;
+    }
+
+    private double slowCallRate() {
+        return buffered == 0 ? 0 : (double) slowCount / buffered;
+    }
+
+    private void transitionTo(State target) {
+        State previous = state;
+        state = target;
+        epoch++;
+        lastTransitionAt = LocalDateTime.now();
+        switch (target) {
+            case OPEN -> {
+                openedAtNanos = System.nanoTime();
+                openedCount++;
+                log.warn("Circuit breaker {} opened (was {}, failure rate {}, slow-call rate {})", name, previous,
+                        String.format("%.2f", failureRate()), String.format("%.2f", slowCallRate()));
+            }
+            case HALF_OPEN -> {
+                halfOpenInFlight = 0;
+                halfOpenSucceeded = 0;
+                halfOpenedCount++;
+                log.info("Circuit breaker {} half-open, allowing {} trial calls", name, halfOpenCalls);
+            }
+            case CLOSED -> {
+                next = 0;
+                buffered = 0;
+                failureCount = 0;
+                slowCount = 0;
+                closedCount++;
+                log.info("Circuit breaker {} closed", name);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized CircuitBreakerStatistics stats() {
+        return CircuitBreakerStatistics.builder()
+                .name(name)
+                .state(state.name())
+                .bufferedCalls(buffered)
+                .failureRate(failureRate())
+                .slowCallRate(slowCallRate())
+                .rejectedCount(rejectedCount)
+                .openedCount(openedCount)
+                .halfOpenedCount(halfOpenedCount)
+                .closedCount(closedCount)
+                .lastTransitionAt(lastTransitionAt)
+                .build();
+    }
+}
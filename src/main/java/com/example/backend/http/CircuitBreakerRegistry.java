@@ -0,0 +1,135 @@
+package com.example.backend.http;
+
+import com.example.backend.exception.UpstreamUnavailableException;
+import com.example.backend.models.cache.CircuitBreakerStatistics;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// One CircuitBreaker per upstream route (the first path segment below the base
+// URL, e.g. "pokemon" or "pokemon-species"), applied as a WebClient filter.
+// Calls, body included, are bounded by a short timeout; 5xx responses,
+// timeouts and connection errors count as failures, while 4xx responses mean
+// the upstream is healthy.
+public class CircuitBreakerRegistry {
+
+    private final String basePath;
+    private final Duration callTimeout;
+    private final Function<String, CircuitBreaker> factory;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(String baseUrl, Duration callTimeout, Function<String, CircuitBreaker> factory) {
+        String path = URI.create(baseUrl).getPath();
+        this.basePath = path == null ? "" : path.replaceAll("/+$", "");
+        this.callTimeout = callTimeout;
+        this.factory = factory;
+    }
+
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            CircuitBreaker breaker = breakerFor(routeOf(request.url()));
+            long epoch = breaker.tryAcquire();
+            if (epoch < 0) {
+                return Mono.error(new UpstreamUnavailableException(
+                        "PokeAPI indisponível no momento (" + breaker.getName() + ")"));
+            }
+
+            Call call = new Call(breaker, epoch);
+            return next.exchange(request)
+                    .timeout(callTimeout)
+                    .map(call::track)
+                    .doOnError(e -> call.finish(false))
+                    .doOnCancel(call::cancelWithoutResponse);
+        };
+    }
+
+    // One admitted call. Its outcome is recorded once: when a 5xx status
+    // arrives, or when the body has been read, fails or runs past the
+    // deadline. The call timeout and the slow-call timer therefore cover a
+    // slow body as well as slow headers.
+    private final class Call {
+        private final CircuitBreaker breaker;
+        private final long epoch;
+        private final long startedAt = System.nanoTime();
+        private final long deadline = startedAt + callTimeout.toNanos();
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private volatile boolean responded;
+
+        private Call(CircuitBreaker breaker, long epoch) {
+            this.breaker = breaker;
+            this.epoch = epoch;
+        }
+
+        private ClientResponse track(ClientResponse response) {
+            responded = true;
+            if (response.statusCode().is5xxServerError()) {
+                finish(false);
+                return response;
+            }
+            return response.mutate()
+                    .body(body -> body
+                            .timeout(Mono.delay(remaining()), buffer -> Mono.delay(remaining()))
+                            .doOnComplete(() -> finish(true))
+                            .doOnError(e -> finish(false))
+                            .doOnCancel(this::release))
+                    .build();
+        }
+
+        private Duration remaining() {
+            return Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+        }
+
+        private void finish(boolean success) {
+            if (recorded.compareAndSet(false, true)) {
+                breaker.onResult(epoch, success, System.nanoTime() - startedAt);
+            }
+        }
+
+        // Once the response is handed on, the body decides the outcome
+        private void cancelWithoutResponse() {
+            if (!responded) {
+                release();
+            }
+        }
+
+        private void release() {
+            if (recorded.compareAndSet(false, true)) {
+                breaker.release(epoch);
+            }
+        }
+    }
+
+    public CircuitBreaker breakerFor(String route) {
+        return breakers.computeIfAbsent(route, factory);
+    }
+
+    public List<CircuitBreakerStatistics> getStatistics() {
+        return breakers.values().stream()
+                .map(CircuitBreaker::stats)
+                .sorted(Comparator.comparing(CircuitBreakerStatistics::getName))
+                .collect(Collectors.toList());
+    }
+
+    private String routeOf(URI url) {
+        String path = url.getPath() == null ? "" : url.getPath();
+        if (!basePath.isEmpty() && path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
+        }
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                return segment;
+            }
+        }
+        return "root";
+    }
+}
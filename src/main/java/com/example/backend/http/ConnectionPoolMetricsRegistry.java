@@ -0,0 +1,59 @@
+package com.example.backend.http;
+
+import com.example.backend.models.cache.ConnectionPoolStatistics;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps a handle on the live metrics of every pool Reactor Netty creates (one
+// per remote address) so they can be read on demand without Micrometer.
+public class ConnectionPoolMetricsRegistry implements ConnectionProvider.MeterRegistrar {
+
+    private final Map<String, PoolEntry> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress,
+            ConnectionPoolMetrics metrics) {
+        pools.put(id, new PoolEntry(poolName, String.valueOf(remoteAddress), metrics));
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        pools.remove(id);
+    }
+
+    public List<ConnectionPoolStatistics> getStatistics() {
+        List<ConnectionPoolStatistics> statistics = new ArrayList<>();
+        for (PoolEntry entry : pools.values()) {
+            ConnectionPoolMetrics metrics = entry.metrics;
+            statistics.add(ConnectionPoolStatistics.builder()
+                    .poolName(entry.poolName)
+                    .remoteAddress(entry.remoteAddress)
+                    .acquiredConnections(metrics.acquiredSize())
+                    .allocatedConnections(metrics.allocatedSize())
+                    .idleConnections(metrics.idleSize())
+                    .pendingAcquires(metrics.pendingAcquireSize())
+                    .maxConnections(metrics.maxAllocatedSize())
+                    .maxPendingAcquires(metrics.maxPendingAcquireSize())
+                    .build());
+        }
+        return statistics;
+    }
+
+    private static final class PoolEntry {
+        private final String poolName;
+        private final String remoteAddress;
+        private final ConnectionPoolMetrics metrics;
+
+        private PoolEntry(String poolName, String remoteAddress, ConnectionPoolMetrics metrics) {
+            this.poolName = poolName;
+            this.remoteAddress = remoteAddress;
+            this.metrics = metrics;
+        }
+    }
+}
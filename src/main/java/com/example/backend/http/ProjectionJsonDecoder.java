@@ -0,0 +1,275 @@
+package com.example.backend.http;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Decodes large upstream payloads straight into the project's model classes
+// without buffering the whole body. Bytes are fed to Jackson's non-blocking
+// parser as they arrive; only the fields the target class declares (recursively)
+// are kept in a TokenBuffer, every other subtree (moves, game_indices, the
+// sprite tree, ...) is skipped token by token.
+public class ProjectionJsonDecoder implements Decoder<Object> {
+
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_JSON);
+
+    private final ObjectMapper objectMapper;
+    private final Set<Class<?>> projectedTypes;
+    private final Map<JavaType, Projection> projections = new ConcurrentHashMap<>();
+
+    public ProjectionJsonDecoder(ObjectMapper objectMapper, Set<Class<?>> projectedTypes) {
+        this.objectMapper = objectMapper;
+        this.projectedTypes = projectedTypes;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+        if (!projectedTypes.contains(elementType.toClass())) {
+            return false;
+        }
+        return mimeType == null || MIME_TYPES.stream().anyMatch(supported -> supported.isCompatibleWith(mimeType));
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public Flux<Object> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType, MimeType mimeType,
+            Map<String, Object> hints) {
+        return decodeToMono(inputStream, elementType, mimeType, hints).flux();
+    }
+
+    @Override
+    public Mono<Object> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+            MimeType mimeType, Map<String, Object> hints) {
+        return Mono.defer(() -> {
+            JavaType javaType = objectMapper.constructType(elementType.getType());
+            ProjectingParser parser = new ProjectingParser(projectionOf(javaType));
+            return Flux.from(inputStream)
+                    .doOnNext(buffer -> {
+                        try {
+                            parser.feed(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.fromCallable(() -> parser.finish(javaType)))
+                    .onErrorMap(IOException.class,
+                            e -> new DecodingException("JSON decoding error: " + e.getMessage(), e));
+        });
+    }
+
+    private Projection projectionOf(JavaType type) {
+        Projection cached = projections.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        Projection projection = buildProjection(type, new HashMap<>());
+        projections.put(type, projection);
+        return projection;
+    }
+
+    // Collections project to their element type; maps, scalars and untyped
+    // values are kept whole
+    private Projection buildProjection(JavaType type, Map<JavaType, Projection> inProgress) {
+        if (type.isCollectionLikeType() || type.isArrayType()) {
+            return buildProjection(type.getContentType(), inProgress);
+        }
+        Class<?> raw = type.getRawClass();
+        if (type.isMapLikeType() || type.isPrimitive() || type.isEnumType() || raw == Object.class
+                || raw.getName().startsWith("java.")) {
+            return Projection.KEEP_ALL;
+        }
+
+        Projection existing = inProgress.get(type);
+        if (existing != null) {
+            return existing;
+        }
+        BeanDescription description = objectMapper.getDeserializationConfig().introspect(type);
+        if (description.findAnySetterAccessor() != null) {
+            return Projection.KEEP_ALL;
+        }
+
+        Map<String, Projection> fields = new HashMap<>();
+        Projection projection = new Projection(fields);
+        inProgress.put(type, projection);
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            if (property.hasSetter() || property.hasField() || property.hasConstructorParameter()) {
+                fields.put(property.getName(), buildProjection(property.getPrimaryType(), inProgress));
+            }
+        }
+        return projection;
+    }
+
+    // Field whitelist for one object level; null fields means keep everything
+    private static final class Projection {
+        private static final Projection KEEP_ALL = new Projection(null);
+
+        private final Map<String, Projection> fields;
+
+        private Projection(Map<String, Projection> fields) {
+            this.fields = fields != null ? Collections.unmodifiableMap(fields) : null;
+        }
+
+        private Projection field(String name) {
+            return fields == null ? KEEP_ALL : fields.get(name);
+        }
+    }
+
+    private final class ProjectingParser {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final TokenBuffer tokens;
+        private final Projection root;
+        private final Deque<Projection> stack = new ArrayDeque<>();
+        private final Deque<Boolean> arrays = new ArrayDeque<>();
+
+        private Projection pendingField;
+        private boolean skipNextValue;
+        private int skipDepth;
+        private boolean started;
+        private boolean complete;
+
+        private ProjectingParser(Projection root) {
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create non-blocking JSON parser", e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            this.tokens = new TokenBuffer(objectMapper, false);
+            this.root = root;
+        }
+
+        // Anything after the document (trailing whitespace, a second document)
+        // is ignored: the parser is never fed again once the root value ends,
+        // so it cannot complain about input it was not asked to consume
+        private void feed(DataBuffer buffer) {
+            if (complete) {
+                return;
+            }
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            try {
+                feeder.feedInput(bytes, 0, bytes.length);
+                drain();
+            } catch (IOException e) {
+                throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+            }
+        }
+
+        private Object finish(JavaType type) throws IOException {
+            if (!complete) {
+                feeder.endOfInput();
+                drain();
+            }
+            if (!complete) {
+                // An empty body has no value; a document cut short is an error
+                if (started) {
+                    throw new DecodingException("Incomplete JSON document");
+                }
+                return null;
+            }
+            try (JsonParser projected = tokens.asParser(objectMapper)) {
+                return objectMapper.readValue(projected, type);
+            }
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while (!complete && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                started = true;
+                accept(token);
+            }
+        }
+
+        private void accept(JsonToken token) throws IOException {
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                return;
+            }
+            if (skipNextValue) {
+                skipNextValue = false;
+                if (token.isStructStart()) {
+                    skipDepth = 1;
+                }
+                return;
+            }
+
+            switch (token) {
+                case FIELD_NAME:
+                    Projection field = stack.peek().field(parser.currentName());
+                    if (field == null) {
+                        skipNextValue = true;
+                    } else {
+                        pendingField = field;
+                        tokens.copyCurrentEvent(parser);
+                    }
+                    break;
+
+                case START_OBJECT:
+                case START_ARRAY:
+                    Projection projection = valueProjection();
+                    tokens.copyCurrentEvent(parser);
+                    stack.push(projection);
+                    arrays.push(token == JsonToken.START_ARRAY);
+                    break;
+
+                case END_OBJECT:
+                case END_ARRAY:
+                    tokens.copyCurrentEvent(parser);
+                    stack.pop();
+                    arrays.pop();
+                    complete = stack.isEmpty();
+                    break;
+
+                default:
+                    tokens.copyCurrentEvent(parser);
+                    complete = stack.isEmpty();
+                    break;
+            }
+        }
+
+        // Array elements share the array's projection; object members use the
+        // projection of the field name just read
+        private Projection valueProjection() {
+            if (stack.isEmpty()) {
+                return root;
+            }
+            return arrays.peek() ? stack.peek() : pendingField;
+        }
+    }
+}
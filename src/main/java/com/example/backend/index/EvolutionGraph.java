@@ -0,0 +1,229 @@
+package com.example.backend.index;
+
+import com.example.backend.models.ChainLink;
+import com.example.backend.models.evolution.EvolutionChain;
+import com.example.backend.models.evolution.EvolutionDetail;
+import com.example.backend.util.PokeApiUrls;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable evolution graph over every known chain, stored as arrays indexed by
+// species id: the chain a species belongs to, its parent, its children and the
+// details of the evolution into it. Previous/next/full-line lookups are plain
+// array reads; chains can be merged in one at a time as they are loaded, which
+// copies the arrays but only walks the chains being added.
+public final class EvolutionGraph {
+
+    private static final int[] NO_SPECIES = new int[0];
+
+    @SuppressWarnings("unchecked")
+    public static final EvolutionGraph EMPTY = new EvolutionGraph(new HashMap<>(), NO_SPECIES, NO_SPECIES,
+            NO_SPECIES, new int[0][], new boolean[0], new String[0], new List[0], new HashMap<>(), new HashMap<>());
+
+    private final int[] chainOf;
+    private final int[] parentOf;
+    private final int[] depthOf;
+    private final int[][] childrenOf;
+    private final boolean[] baby;
+    private final String[] names;
+    private final List<EvolutionDetail>[] detailsOf;
+    private final Map<String, Integer> speciesByName;
+    private final Map<Integer, int[]> lineByChain;
+    private final Map<Integer, EvolutionChain> chains;
+
+    private EvolutionGraph(Map<Integer, EvolutionChain> chains, int[] chainOf, int[] parentOf, int[] depthOf,
+            int[][] childrenOf, boolean[] baby, String[] names, List<EvolutionDetail>[] detailsOf,
+            Map<String, Integer> speciesByName, Map<Integer, int[]> lineByChain) {
+        this.chains = chains;
+        this.chainOf = chainOf;
+        this.parentOf = parentOf;
+        this.depthOf = depthOf;
+        this.childrenOf = childrenOf;
+        this.baby = baby;
+        this.names = names;
+        this.detailsOf = detailsOf;
+        this.speciesByName = speciesByName;
+        this.lineByChain = lineByChain;
+    }
+
+    public static EvolutionGraph of(Collection<EvolutionChain> chains) {
+        return EMPTY.withChains(chains);
+    }
+
+    // Returns a new graph with the given chains added or replaced
+    public EvolutionGraph withChains(Collection<EvolutionChain> added) {
+        Map<Integer, List<Node>> nodesByChain = new HashMap<>();
+        Map<Integer, EvolutionChain> merged = new HashMap<>(chains);
+        int capacity = chainOf.length;
+        for (EvolutionChain chain : added) {
+            if (chain == null || chain.getId() == null || chain.getChain() == null) {
+                continue;
+            }
+            List<Node> nodes = new ArrayList<>();
+            collect(chain.getChain(), 0, 0, nodes);
+            for (Node node : nodes) {
+                capacity = Math.max(capacity, node.speciesId + 1);
+            }
+            nodesByChain.put(chain.getId().intValue(), nodes);
+            merged.put(chain.getId().intValue(), chain);
+        }
+        if (nodesByChain.isEmpty()) {
+            return this;
+        }
+
+        EvolutionGraph updated = new EvolutionGraph(merged, Arrays.copyOf(chainOf, capacity),
+                Arrays.copyOf(parentOf, capacity), Arrays.copyOf(depthOf, capacity),
+                Arrays.copyOf(childrenOf, capacity), Arrays.copyOf(baby, capacity),
+                Arrays.copyOf(names, capacity), Arrays.copyOf(detailsOf, capacity),
+                new HashMap<>(speciesByName), new HashMap<>(lineByChain));
+        for (Map.Entry<Integer, List<Node>> entry : nodesByChain.entrySet()) {
+            updated.removeLine(entry.getKey());
+            updated.addLine(entry.getKey(), entry.getValue());
+        }
+        return updated;
+    }
+
+    // Only used on a fresh copy, before it is published
+    private void removeLine(int chainId) {
+        int[] line = lineByChain.remove(chainId);
+        if (line == null) {
+            return;
+        }
+        for (int species : line) {
+            if (chainOf[species] == chainId) {
+                speciesByName.remove(names[species], species);
+                chainOf[species] = 0;
+                parentOf[species] = 0;
+                depthOf[species] = 0;
+                childrenOf[species] = null;
+                baby[species] = false;
+                names[species] = null;
+                detailsOf[species] = null;
+            }
+        }
+    }
+
+    private void addLine(int chainId, List<Node> nodes) {
+        int[] line = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            int species = node.speciesId;
+            line[i] = species;
+            chainOf[species] = chainId;
+            parentOf[species] = node.parentId;
+            depthOf[species] = node.depth;
+            childrenOf[species] = node.children.isEmpty()
+                    ? NO_SPECIES
+                    : node.children.stream().mapToInt(Integer::intValue).toArray();
+            baby[species] = node.baby;
+            names[species] = node.name;
+            detailsOf[species] = node.details;
+            speciesByName.put(node.name, species);
+        }
+        lineByChain.put(chainId, line);
+    }
+
+    // Depth-first pre-order, so every line lists parents before their children
+    private static void collect(ChainLink link, int parentId, int depth, List<Node> nodes) {
+        Long speciesId = link.getSpecies() != null ? PokeApiUrls.extractId(link.getSpecies().getUrl()) : null;
+        if (speciesId == null) {
+            return;
+        }
+        Node node = new Node(speciesId.intValue(), link.getSpecies().getName(), parentId, depth,
+                Boolean.TRUE.equals(link.getIsBaby()),
+                link.getEvolutionDetails() != null ? link.getEvolutionDetails() : Collections.emptyList());
+        nodes.add(node);
+        if (link.getEvolvesTo() != null) {
+            for (ChainLink child : link.getEvolvesTo()) {
+                int before = nodes.size();
+                collect(child, node.speciesId, depth + 1, nodes);
+                if (nodes.size() > before) {
+                    node.children.add(nodes.get(before).speciesId);
+                }
+            }
+        }
+    }
+
+    public int chainCount() {
+        return chains.size();
+    }
+
+    public int speciesCount() {
+        return speciesByName.size();
+    }
+
+    public boolean contains(int speciesId) {
+        return speciesId > 0 && speciesId < chainOf.length && chainOf[speciesId] != 0;
+    }
+
+    // 0 when the species is not part of a known chain
+    public int speciesIdOf(String name) {
+        Integer species = speciesByName.get(name);
+        return species != null ? species : 0;
+    }
+
+    public int chainOf(int speciesId) {
+        return contains(speciesId) ? chainOf[speciesId] : 0;
+    }
+
+    public EvolutionChain chain(int chainId) {
+        return chains.get(chainId);
+    }
+
+    // 0 for the first stage of a line
+    public int parentOf(int speciesId) {
+        return contains(speciesId) ? parentOf[speciesId] : 0;
+    }
+
+    public int[] childrenOf(int speciesId) {
+        return contains(speciesId) ? childrenOf[speciesId] : NO_SPECIES;
+    }
+
+    public int depthOf(int speciesId) {
+        return contains(speciesId) ? depthOf[speciesId] : 0;
+    }
+
+    // Every species of the line, parents before children
+    public int[] lineOf(int speciesId) {
+        return contains(speciesId) ? lineByChain.get(chainOf[speciesId]) : NO_SPECIES;
+    }
+
+    public String nameOf(int speciesId) {
+        return contains(speciesId) ? names[speciesId] : null;
+    }
+
+    public boolean isBaby(int speciesId) {
+        return contains(speciesId) && baby[speciesId];
+    }
+
+    // How the parent evolves into this species; empty for the first stage
+    public List<EvolutionDetail> detailsOf(int speciesId) {
+        return contains(speciesId) ? detailsOf[speciesId] : Collections.emptyList();
+    }
+
+    private static final class Node {
+        private final int speciesId;
+        private final String name;
+        private final int parentId;
+        private final int depth;
+        private final boolean baby;
+        private final List<EvolutionDetail> details;
+        private final List<Integer> children = new ArrayList<>();
+
+        private Node(int speciesId, String name, int parentId, int depth, boolean baby,
+                List<EvolutionDetail> details) {
+            this.speciesId = speciesId;
+            this.name = name;
+            this.parentId = parentId;
+            this.depth = depth;
+            this.baby = baby;
+            this.details = details;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.backend.index;
+
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonType;
+import com.example.backend.models.search.PokemonSearchQuery;
+import com.example.backend.models.type.TypeName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Immutable column store of the whole dex. Rows are ordered by Pokémon id and
+// every sortable attribute has a precomputed row ordering, so a query is a
+// single linear scan over primitive arrays.
+public final class PokemonIndex {
+
+    public static final PokemonIndex EMPTY = new PokemonIndex(new TreeMap<>());
+    public static final Set<String> SORT_ATTRIBUTES = Set.of("id", "name", "height", "weight", "base_experience");
+
+    private final long[] ids;
+    private final String[] names;
+    private final int[] heights;
+    private final int[] weights;
+    private final int[] baseExperience;
+    private final int[] typeMasks;
+    private final Map<String, Integer> rowByName;
+    private final Map<Long, Integer> rowById;
+    private final Map<String, int[]> sortOrders;
+
+    private PokemonIndex(TreeMap<Long, Row> rowsById) {
+        int size = rowsById.size();
+        this.ids = new long[size];
+        this.names = new String[size];
+        this.heights = new int[size];
+        this.weights = new int[size];
+        this.baseExperience = new int[size];
+        this.typeMasks = new int[size];
+        this.rowByName = new HashMap<>(size * 2);
+        this.rowById = new HashMap<>(size * 2);
+
+        int row = 0;
+        for (Row entry : rowsById.values()) {
+            ids[row] = entry.id;
+            names[row] = entry.name;
+            heights[row] = entry.height;
+            weights[row] = entry.weight;
+            baseExperience[row] = entry.baseExperience;
+            typeMasks[row] = entry.typeMask;
+            rowByName.put(entry.name, row);
+            rowById.put(entry.id, row);
+            row++;
+        }
+
+        this.sortOrders = new HashMap<>();
+        int[] idOrder = new int[size];
+        for (int i = 0; i < size; i++) {
+            idOrder[i] = i;
+        }
+        sortOrders.put("id", idOrder);
+        sortOrders.put("height", orderBy(heights));
+        sortOrders.put("weight", orderBy(weights));
+        sortOrders.put("base_experience", orderBy(baseExperience));
+        sortOrders.put("name", orderByName(names));
+    }
+
+    public static PokemonIndex of(Collection<Pokemon> pokemon) {
+        return EMPTY.withPokemon(pokemon);
+    }
+
+    // Returns a new index containing the current rows plus the given Pokémon
+    // (replacing rows with the same id).
+    public PokemonIndex withPokemon(Collection<Pokemon> pokemon) {
+        TreeMap<Long, Row> rows = new TreeMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            rows.put(ids[i], new Row(ids[i], names[i], heights[i], weights[i], baseExperience[i], typeMasks[i]));
+        }
+        for (Pokemon p : pokemon) {
+            rows.put(p.getId(), Row.of(p));
+        }
+        return new PokemonIndex(rows);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean containsName(String name) {
+        return rowByName.containsKey(name);
+    }
+
+    public int rowOf(long id) {
+        Integer row = rowById.get(id);
+        return row != null ? row : -1;
+    }
+
+    public long idAt(int row) {
+        return ids[row];
+    }
+
+    public String nameAt(int row) {
+        return names[row];
+    }
+
+    public int heightAt(int row) {
+        return heights[row];
+    }
+
+    public int weightAt(int row) {
+        return weights[row];
+    }
+
+    public int baseExperienceAt(int row) {
+        return baseExperience[row];
+    }
+
+    public int typeMaskAt(int row) {
+        return typeMasks[row];
+    }
+
+    public static int typeMaskOf(Collection<String> typeNames) {
+        int mask = 0;
+        if (typeNames != null) {
+            for (String typeName : typeNames) {
+                int ordinal = TypeName.ordinalOf(typeName);
+                if (ordinal >= 0) {
+                    mask |= 1 << ordinal;
+                }
+            }
+        }
+        return mask;
+    }
+
+    public List<Long> search(PokemonSearchQuery query) {
+        int[] order = sortOrders.get(query.getSortBy() != null ? query.getSortBy() : "id");
+        if (order == null) {
+            throw new IllegalArgumentException("Unknown sort attribute: " + query.getSortBy());
+        }
+        int requiredMask = typeMaskOf(query.getTypes());
+        int minHeight = lowerBound(query.getMinHeight());
+        int maxHeight = upperBound(query.getMaxHeight());
+        int minWeight = lowerBound(query.getMinWeight());
+        int maxWeight = upperBound(query.getMaxWeight());
+        int minExp = lowerBound(query.getMinBaseExperience());
+        int maxExp = upperBound(query.getMaxBaseExperience());
+
+        List<Long> page = new ArrayList<>(Math.max(0, Math.min(query.getLimit(), order.length)));
+        int skipped = 0;
+        for (int i = 0; i < order.length && page.size() < query.getLimit(); i++) {
+            int row = order[query.isAscending() ? i : order.length - 1 - i];
+            if ((typeMasks[row] & requiredMask) != requiredMask
+                    || heights[row] < minHeight || heights[row] > maxHeight
+                    || weights[row] < minWeight || weights[row] > maxWeight
+                    || baseExperience[row] < minExp || baseExperience[row] > maxExp) {
+                continue;
+            }
+            if (skipped < query.getOffset()) {
+                skipped++;
+                continue;
+            }
+            page.add(ids[row]);
+        }
+        return page;
+    }
+
+    private static int lowerBound(Integer value) {
+        return value != null ? value : Integer.MIN_VALUE;
+    }
+
+    private static int upperBound(Integer value) {
+        return value != null ? value : Integer.MAX_VALUE;
+    }
+
+    // Packs (value, row) into a long so the ordering is a primitive sort
+    private static int[] orderBy(int[] column) {
+        long[] packed = new long[column.length];
+        for (int row = 0; row < column.length; row++) {
+            packed[row] = ((long) column[row] << 32) | row;
+        }
+        Arrays.sort(packed);
+        int[] order = new int[column.length];
+        for (int i = 0; i < packed.length; i++) {
+            order[i] = (int) packed[i];
+        }
+        return order;
+    }
+
+    private static int[] orderByName(String[] column) {
+        Integer[] rows = new Integer[column.length];
+        for (int row = 0; row < column.length; row++) {
+            rows[row] = row;
+        }
+        Arrays.sort(rows, Comparator.comparing(row -> column[row]));
+        int[] order = new int[column.length];
+        for (int i = 0; i < rows.length; i++) {
+            order[i] = rows[i];
+        }
+        return order;
+    }
+
+    private static final class Row {
+        private final long id;
+        private final String name;
+        private final int height;
+        private final int weight;
+        private final int baseExperience;
+        private final int typeMask;
+
+        private Row(long id, String name, int height, int weight, int baseExperience, int typeMask) {
+            this.id = id;
+            this.name = name;
+            this.height = height;
+            this.weight = weight;
+            this.baseExperience = baseExperience;
+            this.typeMask = typeMask;
+        }
+
+        private static Row of(Pokemon pokemon) {
+            List<String> typeNames = new ArrayList<>();
+            if (pokemon.getTypes() != null) {
+                for (PokemonType type : pokemon.getTypes()) {
+                    typeNames.add(type.getType().getName());
+                }
+            }
+            return new Row(
+                    pokemon.getId(),
+                    pokemon.getName(),
+                    pokemon.getHeight() != null ? pokemon.getHeight() : 0,
+                    pokemon.getWeight() != null ? pokemon.getWeight() : 0,
+                    pokemon.getBaseExperience() != null ? pokemon.getBaseExperience() : 0,
+                    typeMaskOf(typeNames));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.backend.index;
+
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonType;
+import com.example.backend.models.type.TypeName;
+
+// Feature matrix of the whole dex (type bitmask, height, weight, base
+// experience) and a scoring kernel that ranks every row in one pass.
+public final class SimilarityEngine {
+
+    public static final int TYPE = 0;
+    public static final int HEIGHT = 1;
+    public static final int WEIGHT = 2;
+    public static final int BASE_EXPERIENCE = 3;
+    public static final int FEATURE_COUNT = 4;
+
+    private final PokemonIndex index;
+    private final long[] ids;
+    private final int[] typeMasks;
+    private final double[] heights;
+    private final double[] weights;
+    private final double[] baseExperience;
+
+    private SimilarityEngine(PokemonIndex index) {
+        int size = index.size();
+        this.index = index;
+        this.ids = new long[size];
+        this.typeMasks = new int[size];
+        this.heights = new double[size];
+        this.weights = new double[size];
+        this.baseExperience = new double[size];
+        for (int row = 0; row < size; row++) {
+            ids[row] = index.idAt(row);
+            typeMasks[row] = index.typeMaskAt(row);
+            heights[row] = index.heightAt(row);
+            weights[row] = index.weightAt(row);
+            baseExperience[row] = index.baseExperienceAt(row);
+        }
+    }
+
+    public static SimilarityEngine of(PokemonIndex index) {
+        return new SimilarityEngine(index);
+    }
+
+    public PokemonIndex getIndex() {
+        return index;
+    }
+
+    public long idAt(int row) {
+        return ids[row];
+    }
+
+    // Feature weights per strategy, in TYPE/HEIGHT/WEIGHT/BASE_EXPERIENCE order
+    public static double[] weightsFor(String strategy) {
+        if ("type".equals(strategy)) {
+            return new double[] { 0.7, 0.1, 0.1, 0.1 };
+        } else if ("stats".equals(strategy)) {
+            return new double[] { 0.2, 0.2, 0.2, 0.4 };
+        }
+        return new double[] { 0.4, 0.2, 0.2, 0.2 };
+    }
+
+    // Scores every row sharing at least one type with candidateMask and keeps
+    // the best k. The base Pokémon itself is skipped.
+    public TopK rank(Pokemon base, int candidateMask, double[] strategyWeights, int k) {
+        int baseMask = typeMaskOf(base);
+        double baseHeight = valueOf(base.getHeight());
+        double baseWeight = valueOf(base.getWeight());
+        double baseExp = valueOf(base.getBaseExperience());
+        long baseId = base.getId();
+
+        TopK top = new TopK(Math.min(k, ids.length));
+        for (int row = 0; row < ids.length; row++) {
+            if (ids[row] == baseId || (typeMasks[row] & candidateMask) == 0) {
+                continue;
+            }
+            double score = strategyWeights[TYPE] * jaccard(baseMask, typeMasks[row])
+                    + strategyWeights[HEIGHT] * closeness(baseHeight, heights[row])
+                    + strategyWeights[WEIGHT] * closeness(baseWeight, weights[row])
+                    + strategyWeights[BASE_EXPERIENCE] * closeness(baseExp, baseExperience[row]);
+            top.offer(row, score);
+        }
+        return top;
+    }
+
+    // Scores a single candidate outside the index, without allocating
+    public static double score(Pokemon base, Pokemon candidate, double[] strategyWeights) {
+        return strategyWeights[TYPE] * jaccard(typeMaskOf(base), typeMaskOf(candidate))
+                + strategyWeights[HEIGHT] * closeness(valueOf(base.getHeight()), valueOf(candidate.getHeight()))
+                + strategyWeights[WEIGHT] * closeness(valueOf(base.getWeight()), valueOf(candidate.getWeight()))
+                + strategyWeights[BASE_EXPERIENCE]
+                        * closeness(valueOf(base.getBaseExperience()), valueOf(candidate.getBaseExperience()));
+    }
+
+    public static double[] breakdown(Pokemon base, Pokemon candidate) {
+        double[] features = new double[FEATURE_COUNT];
+        features[TYPE] = jaccard(typeMaskOf(base), typeMaskOf(candidate));
+        features[HEIGHT] = closeness(valueOf(base.getHeight()), valueOf(candidate.getHeight()));
+        features[WEIGHT] = closeness(valueOf(base.getWeight()), valueOf(candidate.getWeight()));
+        features[BASE_EXPERIENCE] = closeness(valueOf(base.getBaseExperience()), valueOf(candidate.getBaseExperience()));
+        return features;
+    }
+
+    // Per-feature similarities of one row, only computed for the winners
+    public double[] breakdown(Pokemon base, int row) {
+        double[] features = new double[FEATURE_COUNT];
+        features[TYPE] = jaccard(typeMaskOf(base), typeMasks[row]);
+        features[HEIGHT] = closeness(valueOf(base.getHeight()), heights[row]);
+        features[WEIGHT] = closeness(valueOf(base.getWeight()), weights[row]);
+        features[BASE_EXPERIENCE] = closeness(valueOf(base.getBaseExperience()), baseExperience[row]);
+        return features;
+    }
+
+    private static double jaccard(int a, int b) {
+        int union = Integer.bitCount(a | b);
+        return union == 0 ? 0.0 : (double) Integer.bitCount(a & b) / union;
+    }
+
+    private static double closeness(double a, double b) {
+        double max = Math.max(a, b);
+        return max == 0.0 ? 1.0 : 1.0 - Math.abs(a - b) / max;
+    }
+
+    private static double valueOf(Integer value) {
+        return value != null ? value : 0.0;
+    }
+
+    private static int typeMaskOf(Pokemon pokemon) {
+        int mask = 0;
+        if (pokemon.getTypes() != null) {
+            for (PokemonType type : pokemon.getTypes()) {
+                int ordinal = TypeName.ordinalOf(type.getType().getName());
+                if (ordinal >= 0) {
+                    mask |= 1 << ordinal;
+                }
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backend.index;
+
+// Bounded min-heap over (row, score) pairs that keeps the k highest scores
+// seen so far in O(log k) per offer, without boxing.
+public final class TopK {
+
+    private final int capacity;
+    private final int[] rows;
+    private final double[] scores;
+    private int size;
+
+    public TopK(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.rows = new int[this.capacity];
+        this.scores = new double[this.capacity];
+    }
+
+    public void offer(int row, double score) {
+        if (capacity == 0) {
+            return;
+        }
+        if (size < capacity) {
+            rows[size] = row;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            rows[0] = row;
+            scores[0] = score;
+            siftDown(0, size);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int rowAt(int position) {
+        return rows[position];
+    }
+
+    public double scoreAt(int position) {
+        return scores[position];
+    }
+
+    // Heap-sorts in place so position 0 holds the best score. No further
+    // offers are allowed afterwards.
+    public TopK sortDescending() {
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        return this;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (scores[position] >= scores[parent]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position, int length) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < length && scores[left] < scores[smallest]) {
+                smallest = left;
+            }
+            if (right < length && scores[right] < scores[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int row = rows[a];
+        rows[a] = rows[b];
+        rows[b] = row;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
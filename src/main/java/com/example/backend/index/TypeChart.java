@@ -0,0 +1,175 @@
+package com.example.backend.index;
+
+import com.example.backend.models.NamedApiResource;
+import com.example.backend.models.type.TypeName;
+import com.example.backend.models.type.TypeRelations;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.backend.models.type.TypeName.*;
+
+// Immutable type-effectiveness chart indexed by TypeName ordinal, plus the
+// defensive multipliers of every single- and dual-type combination (18 + 153 = 171).
+public final class TypeChart {
+
+    public static final int COMBINATION_COUNT = TypeName.COUNT * (TypeName.COUNT + 1) / 2;
+
+    private final double[][] attack;
+    private final double[][][] defense;
+    private final int[] combinationPrimary;
+    private final int[] combinationSecondary;
+
+    private TypeChart(double[][] attack) {
+        int count = TypeName.COUNT;
+        this.attack = attack;
+        this.defense = new double[count][count][];
+        this.combinationPrimary = new int[COMBINATION_COUNT];
+        this.combinationSecondary = new int[COMBINATION_COUNT];
+
+        int combination = 0;
+        for (int primary = 0; primary < count; primary++) {
+            for (int secondary = primary; secondary < count; secondary++) {
+                double[] multipliers = new double[count];
+                for (int attacker = 0; attacker < count; attacker++) {
+                    multipliers[attacker] = primary == secondary
+                            ? attack[attacker][primary]
+                            : attack[attacker][primary] * attack[attacker][secondary];
+                }
+                defense[primary][secondary] = multipliers;
+                defense[secondary][primary] = multipliers;
+                combinationPrimary[combination] = primary;
+                combinationSecondary[combination] = secondary;
+                combination++;
+            }
+        }
+    }
+
+    public double effectiveness(int attacker, int defender) {
+        return attack[attacker][defender];
+    }
+
+    // Multipliers taken by a defender of the given type(s), indexed by attacking
+    // type. A secondary of -1 means single type. The array is shared, do not modify.
+    public double[] defensiveMultipliers(int primary, int secondary) {
+        return defense[primary][secondary < 0 ? primary : secondary];
+    }
+
+    public int combinationPrimary(int combination) {
+        return combinationPrimary[combination];
+    }
+
+    // Equals combinationPrimary for single-type combinations
+    public int combinationSecondary(int combination) {
+        return combinationSecondary[combination];
+    }
+
+    public static TypeChart standard() {
+        double[][] chart = neutralChart();
+
+        set(chart, NORMAL, 0.5, ROCK, STEEL);
+        set(chart, NORMAL, 0.0, GHOST);
+
+        set(chart, FIRE, 2.0, GRASS, ICE, BUG, STEEL);
+        set(chart, FIRE, 0.5, FIRE, WATER, ROCK, DRAGON);
+
+        set(chart, WATER, 2.0, FIRE, GROUND, ROCK);
+        set(chart, WATER, 0.5, WATER, GRASS, DRAGON);
+
+        set(chart, ELECTRIC, 2.0, WATER, FLYING);
+        set(chart, ELECTRIC, 0.5, ELECTRIC, GRASS, DRAGON);
+        set(chart, ELECTRIC, 0.0, GROUND);
+
+        set(chart, GRASS, 2.0, WATER, GROUND, ROCK);
+        set(chart, GRASS, 0.5, FIRE, GRASS, POISON, FLYING, BUG, DRAGON, STEEL);
+
+        set(chart, ICE, 2.0, GRASS, GROUND, FLYING, DRAGON);
+        set(chart, ICE, 0.5, FIRE, WATER, ICE, STEEL);
+
+        set(chart, FIGHTING, 2.0, NORMAL, ICE, ROCK, DARK, STEEL);
+        set(chart, FIGHTING, 0.5, POISON, FLYING, PSYCHIC, BUG, FAIRY);
+        set(chart, FIGHTING, 0.0, GHOST);
+
+        set(chart, POISON, 2.0, GRASS, FAIRY);
+        set(chart, POISON, 0.5, POISON, GROUND, ROCK, GHOST);
+        set(chart, POISON, 0.0, STEEL);
+
+        set(chart, GROUND, 2.0, FIRE, ELECTRIC, POISON, ROCK, STEEL);
+        set(chart, GROUND, 0.5, GRASS, BUG);
+        set(chart, GROUND, 0.0, FLYING);
+
+        set(chart, FLYING, 2.0, GRASS, FIGHTING, BUG);
+        set(chart, FLYING, 0.5, ELECTRIC, ROCK, STEEL);
+
+        set(chart, PSYCHIC, 2.0, FIGHTING, POISON);
+        set(chart, PSYCHIC, 0.5, PSYCHIC, STEEL);
+        set(chart, PSYCHIC, 0.0, DARK);
+
+        set(chart, BUG, 2.0, GRASS, PSYCHIC, DARK);
+        set(chart, BUG, 0.5, FIRE, FIGHTING, POISON, FLYING, GHOST, STEEL, FAIRY);
+
+        set(chart, ROCK, 2.0, FIRE, ICE, FLYING, BUG);
+        set(chart, ROCK, 0.5, FIGHTING, GROUND, STEEL);
+
+        set(chart, GHOST, 2.0, PSYCHIC, GHOST);
+        set(chart, GHOST, 0.5, DARK);
+        set(chart, GHOST, 0.0, NORMAL);
+
+        set(chart, DRAGON, 2.0, DRAGON);
+        set(chart, DRAGON, 0.5, STEEL);
+        set(chart, DRAGON, 0.0, FAIRY);
+
+        set(chart, DARK, 2.0, PSYCHIC, GHOST);
+        set(chart, DARK, 0.5, FIGHTING, DARK, FAIRY);
+
+        set(chart, STEEL, 2.0, ICE, ROCK, FAIRY);
+        set(chart, STEEL, 0.5, FIRE, WATER, ELECTRIC, STEEL);
+
+        set(chart, FAIRY, 2.0, FIGHTING, DRAGON, DARK);
+        set(chart, FAIRY, 0.5, FIRE, POISON, STEEL);
+
+        return new TypeChart(chart);
+    }
+
+    // Builds the chart from the damage_relations of /type/{name}, keyed by attacking type
+    public static TypeChart fromDamageRelations(Map<String, TypeRelations> relationsByType) {
+        double[][] chart = neutralChart();
+        relationsByType.forEach((typeName, relations) -> {
+            int attacker = TypeName.ordinalOf(typeName);
+            if (attacker < 0 || relations == null) {
+                return;
+            }
+            apply(chart[attacker], relations.getDoubleDamageTo(), 2.0);
+            apply(chart[attacker], relations.getHalfDamageTo(), 0.5);
+            apply(chart[attacker], relations.getNoDamageTo(), 0.0);
+        });
+        return new TypeChart(chart);
+    }
+
+    private static double[][] neutralChart() {
+        double[][] chart = new double[TypeName.COUNT][TypeName.COUNT];
+        for (double[] row : chart) {
+            Arrays.fill(row, 1.0);
+        }
+        return chart;
+    }
+
+    private static void set(double[][] chart, TypeName attacker, double multiplier, TypeName... defenders) {
+        for (TypeName defender : defenders) {
+            chart[attacker.ordinal()][defender.ordinal()] = multiplier;
+        }
+    }
+
+    private static void apply(double[] row, List<NamedApiResource> defenders, double multiplier) {
+        if (defenders == null) {
+            return;
+        }
+        for (NamedApiResource defender : defenders) {
+            int ordinal = TypeName.ordinalOf(defender.getName());
+            if (ordinal >= 0) {
+                row[ordinal] = multiplier;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.backend.models.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AILaneStatistics {
+    private String priority;
+    private int queueDepth;
+    private long dispatchedCount;
+    private double averageWaitMillis;
+    private double maxWaitMillis;
+}
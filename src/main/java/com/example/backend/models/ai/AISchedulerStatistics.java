@@ -0,0 +1,25 @@
+package com.example.backend.models.ai;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AISchedulerStatistics {
+    private int maxInFlight;
+    private int inFlight;
+    private int maxQueueSize;
+    private int queueDepth;
+    private long tokensPerMinute;
+    private long availableTokens;
+    private long submittedCount;
+    private long completedCount;
+    private long rejectedCount;
+    private List<AILaneStatistics> lanes;
+}
@@ -0,0 +1,28 @@
+package com.example.backend.models.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatistics {
+    private String name;
+    private long size;
+    private long maximumSize;
+    private long ttlSeconds;
+    private long refreshAfterSeconds;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private long inFlightCount;
+    private long coalescedCount;
+    private long staleHitCount;
+    private long refreshCount;
+    private long refreshFailureCount;
+    private long fallbackCount;
+}
@@ -0,0 +1,25 @@
+package com.example.backend.models.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CircuitBreakerStatistics {
+    private String name;
+    private String state;
+    private int bufferedCalls;
+    private double failureRate;
+    private double slowCallRate;
+    private long rejectedCount;
+    private long openedCount;
+    private long halfOpenedCount;
+    private long closedCount;
+    private LocalDateTime lastTransitionAt;
+}
@@ -0,0 +1,21 @@
+package com.example.backend.models.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectionPoolStatistics {
+    private String poolName;
+    private String remoteAddress;
+    private int acquiredConnections;
+    private int allocatedConnections;
+    private int idleConnections;
+    private int pendingAcquires;
+    private int maxConnections;
+    private int maxPendingAcquires;
+}
@@ -0,0 +1,22 @@
+package com.example.backend.models.comparison;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamAnalysis {
+    private List<Long> pokemonIds;
+    private Map<String, Integer> weaknessCount;
+    private Map<String, Integer> resistanceCount;
+    private List<String> sharedWeaknesses;
+    private List<String> coverageGaps;
+    private List<TypeSuggestion> suggestions;
+}
@@ -0,0 +1,19 @@
+package com.example.backend.models.comparison;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeSuggestion {
+    private List<String> types;
+    private double score;
+    private List<String> coveredWeaknesses;
+    private List<String> coveredGaps;
+}
@@ -23,4 +23,6 @@ public class GenerationRequest {
     private Integer maxLength;
     private String format;
     private Boolean includeImagePrompt;
+    // Reuse stored content for identical requests instead of regenerating it
+    private Boolean deterministic;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.backend.models.content;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarmupProgress {
+    private boolean running;
+    private List<String> variants;
+    private int totalCount;
+    private int completedCount;
+    private int generatedCount;
+    private int failedCount;
+    private double itemsPerMinute;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.models.evolution;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvolutionLine {
+    private Long chainId;
+    private EvolutionStage species;
+    private EvolutionStage previous;
+    private List<EvolutionStage> next;
+    private List<EvolutionStage> line;
+}
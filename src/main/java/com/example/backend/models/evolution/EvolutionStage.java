@@ -0,0 +1,23 @@
+package com.example.backend.models.evolution;
+
+import com.example.backend.models.pokemon.Pokemon;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvolutionStage {
+    private Long speciesId;
+    private String name;
+    private int stage;
+    private Long evolvesFromSpeciesId;
+    private boolean baby;
+    private List<EvolutionDetail> evolutionDetails;
+    private Pokemon pokemon;
+}
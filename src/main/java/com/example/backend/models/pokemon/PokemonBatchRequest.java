@@ -0,0 +1,17 @@
+package com.example.backend.models.pokemon;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PokemonBatchRequest {
+    // Pokémon ids or names, in the order the results should come back
+    private List<String> pokemon;
+}
@@ -0,0 +1,16 @@
+package com.example.backend.models.pokemon;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PokemonBatchResult {
+    private String key;
+    private Pokemon pokemon;
+    private String error;
+}
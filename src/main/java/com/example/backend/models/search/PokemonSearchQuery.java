@@ -0,0 +1,26 @@
+package com.example.backend.models.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PokemonSearchQuery {
+    private List<String> types;
+    private Integer minHeight;
+    private Integer maxHeight;
+    private Integer minWeight;
+    private Integer maxWeight;
+    private Integer minBaseExperience;
+    private Integer maxBaseExperience;
+    private String sortBy;
+    private boolean ascending;
+    private int limit;
+    private int offset;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.models.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotProgress {
+    private String resource;
+    private int totalCount;
+    private int ingestedCount;
+    private boolean completed;
+    private LocalDateTime updatedAt;
+}
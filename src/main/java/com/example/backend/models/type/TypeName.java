@@ -0,0 +1,62 @@
+package com.example.backend.models.type;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// The 18 battle types, in a fixed order so they can index primitive arrays
+// and bitmasks.
+public enum TypeName {
+    NORMAL("normal"),
+    FIRE("fire"),
+    WATER("water"),
+    ELECTRIC("electric"),
+    GRASS("grass"),
+    ICE("ice"),
+    FIGHTING("fighting"),
+    POISON("poison"),
+    GROUND("ground"),
+    FLYING("flying"),
+    PSYCHIC("psychic"),
+    BUG("bug"),
+    ROCK("rock"),
+    GHOST("ghost"),
+    DRAGON("dragon"),
+    DARK("dark"),
+    STEEL("steel"),
+    FAIRY("fairy");
+
+    public static final int COUNT = values().length;
+
+    private static final TypeName[] VALUES = values();
+    private static final Map<String, TypeName> BY_API_NAME = new HashMap<>();
+
+    static {
+        for (TypeName type : VALUES) {
+            BY_API_NAME.put(type.apiName, type);
+        }
+    }
+
+    private final String apiName;
+
+    TypeName(String apiName) {
+        this.apiName = apiName;
+    }
+
+    public String getApiName() {
+        return apiName;
+    }
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public static TypeName byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    // Returns -1 for names outside the battle chart ("unknown", "shadow", ...)
+    public static int ordinalOf(String apiName) {
+        TypeName type = apiName != null ? BY_API_NAME.get(apiName.toLowerCase()) : null;
+        return type != null ? type.ordinal() : -1;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+public class ExplanationRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ExplanationRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<String, String> findByPairKeys(Collection<String> pairKeys) {
+        Map<String, String> explanations = new HashMap<>();
+        if (pairKeys.isEmpty()) {
+            return explanations;
+        }
+        jdbcTemplate.query(
+                "SELECT pair_key, explanation FROM ai_explanation WHERE pair_key IN (:keys)",
+                new MapSqlParameterSource("keys", pairKeys),
+                rs -> {
+                    explanations.put(rs.getString("pair_key"), rs.getString("explanation"));
+                });
+        return explanations;
+    }
+
+    public void save(String pairKey, long baseId, long candidateId, String explanation) {
+        jdbcTemplate.update(
+                "MERGE INTO ai_explanation (pair_key, base_id, candidate_id, explanation, created_at) "
+                        + "KEY (pair_key) VALUES (:pairKey, :baseId, :candidateId, :explanation, :createdAt)",
+                new MapSqlParameterSource()
+                        .addValue("pairKey", pairKey)
+                        .addValue("baseId", baseId)
+                        .addValue("candidateId", candidateId)
+                        .addValue("explanation", explanation)
+                        .addValue("createdAt", Timestamp.valueOf(LocalDateTime.now())));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class GeneratedContentRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public GeneratedContentRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<String> findPayload(String contentKey) {
+        List<String> payloads = jdbcTemplate.queryForList(
+                "SELECT payload FROM generated_content WHERE content_key = :key",
+                new MapSqlParameterSource("key", contentKey),
+                String.class);
+        return payloads.stream().findFirst();
+    }
+
+    public void touch(String contentKey) {
+        jdbcTemplate.update(
+                "UPDATE generated_content SET last_access = :now WHERE content_key = :key",
+                new MapSqlParameterSource()
+                        .addValue("key", contentKey)
+                        .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    public void save(String contentKey, String contentId, String contentType, String payload) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(
+                "MERGE INTO generated_content (content_key, content_id, content_type, payload, created_at, last_access) "
+                        + "KEY (content_key) VALUES (:key, :contentId, :contentType, :payload, :now, :now)",
+                new MapSqlParameterSource()
+                        .addValue("key", contentKey)
+                        .addValue("contentId", contentId)
+                        .addValue("contentType", contentType)
+                        .addValue("payload", payload)
+                        .addValue("now", now));
+    }
+
+    public int count() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM generated_content", new MapSqlParameterSource(), Integer.class);
+        return count != null ? count : 0;
+    }
+
+    // Drops the entries that were read least recently; returns their keys
+    public List<String> evictLeastRecentlyUsed(int entries) {
+        if (entries <= 0) {
+            return List.of();
+        }
+        List<String> keys = jdbcTemplate.queryForList(
+                "SELECT content_key FROM generated_content ORDER BY last_access ASC LIMIT :limit",
+                new MapSqlParameterSource("limit", entries),
+                String.class);
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        jdbcTemplate.update(
+                "DELETE FROM generated_content WHERE content_key IN (:keys)",
+                new MapSqlParameterSource("keys", keys));
+        return keys;
+    }
+}
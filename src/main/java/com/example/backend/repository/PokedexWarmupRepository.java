@@ -0,0 +1,43 @@
+package com.example.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Repository
+public class PokedexWarmupRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PokedexWarmupRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Only entries whose generated content is still stored
+    public Set<Long> findCompletedIds(String variant) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT w.pokemon_id FROM pokedex_warmup w "
+                        + "JOIN generated_content g ON g.content_id = w.content_id "
+                        + "WHERE w.variant = :variant",
+                new MapSqlParameterSource("variant", variant),
+                Long.class));
+    }
+
+    public void markCompleted(String variant, long pokemonId, String contentId) {
+        jdbcTemplate.update(
+                "MERGE INTO pokedex_warmup (variant, pokemon_id, content_id, completed_at) "
+                        + "KEY (variant, pokemon_id) VALUES (:variant, :pokemonId, :contentId, :completedAt)",
+                new MapSqlParameterSource()
+                        .addValue("variant", variant)
+                        .addValue("pokemonId", pokemonId)
+                        .addValue("contentId", contentId)
+                        .addValue("completedAt", Timestamp.valueOf(LocalDateTime.now())));
+    }
+}
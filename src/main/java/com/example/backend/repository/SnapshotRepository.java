@@ -0,0 +1,115 @@
+package com.example.backend.repository;
+
+import com.example.backend.models.pokemon.PokemonResult;
+import com.example.backend.models.snapshot.SnapshotProgress;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public class SnapshotRepository {
+
+    private static final RowMapper<SnapshotProgress> PROGRESS_ROW_MAPPER = (rs, rowNum) -> SnapshotProgress.builder()
+            .resource(rs.getString("resource"))
+            .totalCount(rs.getInt("total_count"))
+            .ingestedCount(rs.getInt("ingested_count"))
+            .completed(rs.getBoolean("completed"))
+            .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SnapshotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<String> findPayloadById(String resource, long id) {
+        return jdbcTemplate.query(
+                "SELECT payload FROM snapshot_resource WHERE resource = ? AND resource_id = ?",
+                (rs, rowNum) -> rs.getString("payload"), resource, id)
+                .stream()
+                .findFirst();
+    }
+
+    public Optional<String> findPayloadByName(String resource, String name) {
+        return jdbcTemplate.query(
+                "SELECT payload FROM snapshot_resource WHERE resource = ? AND name = ?",
+                (rs, rowNum) -> rs.getString("payload"), resource, name)
+                .stream()
+                .findFirst();
+    }
+
+    public void save(String resource, long id, String name, String payload) {
+        jdbcTemplate.update(
+                "MERGE INTO snapshot_resource (resource, resource_id, name, payload, updated_at) "
+                        + "KEY (resource, resource_id) VALUES (?, ?, ?, ?, ?)",
+                resource, id, name, payload, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public Set<Long> findIds(String resource) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT resource_id FROM snapshot_resource WHERE resource = ?", Long.class, resource));
+    }
+
+    public int count(String resource) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM snapshot_resource WHERE resource = ?", Integer.class, resource);
+        return count != null ? count : 0;
+    }
+
+    public void saveIndex(String resource, Map<Long, String> namesById) {
+        jdbcTemplate.batchUpdate(
+                "MERGE INTO snapshot_index (resource, resource_id, name) KEY (resource, resource_id) VALUES (?, ?, ?)",
+                new ArrayList<>(namesById.entrySet()), 500, (ps, entry) -> {
+                    ps.setString(1, resource);
+                    ps.setLong(2, entry.getKey());
+                    ps.setString(3, entry.getValue());
+                });
+    }
+
+    public int countIndex(String resource) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM snapshot_index WHERE resource = ?", Integer.class, resource);
+        return count != null ? count : 0;
+    }
+
+    public List<PokemonResult> findNamedPage(String resource, String baseUrl, int limit, int offset) {
+        return jdbcTemplate.query(
+                "SELECT resource_id, name FROM snapshot_index WHERE resource = ? "
+                        + "ORDER BY resource_id LIMIT ? OFFSET ?",
+                (rs, rowNum) -> {
+                    PokemonResult result = new PokemonResult();
+                    result.setName(rs.getString("name"));
+                    result.setUrl(baseUrl + "/" + resource + "/" + rs.getLong("resource_id") + "/");
+                    return result;
+                }, resource, limit, offset);
+    }
+
+    public Optional<SnapshotProgress> findProgress(String resource) {
+        return jdbcTemplate.query("SELECT * FROM snapshot_progress WHERE resource = ?", PROGRESS_ROW_MAPPER, resource)
+                .stream()
+                .findFirst();
+    }
+
+    public List<SnapshotProgress> findAllProgress() {
+        return jdbcTemplate.query("SELECT * FROM snapshot_progress ORDER BY resource", PROGRESS_ROW_MAPPER);
+    }
+
+    public void saveProgress(String resource, int totalCount, int ingestedCount, boolean completed) {
+        jdbcTemplate.update(
+                "MERGE INTO snapshot_progress (resource, total_count, ingested_count, completed, updated_at) "
+                        + "KEY (resource) VALUES (?, ?, ?, ?, ?)",
+                resource, totalCount, ingestedCount, completed, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
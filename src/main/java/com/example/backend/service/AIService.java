@@ -1,15 +1,21 @@
 package com.example.backend.service;
 
+import com.example.backend.ai.AIPriority;
+import com.example.backend.ai.AIRequestScheduler;
 import com.example.backend.models.ai.AIRequest;
+import com.example.backend.models.ai.AISchedulerStatistics;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
@@ -18,19 +24,102 @@ import java.util.Map;
 @Service
 public class AIService {
 
+    private static final String STREAM_DONE = "[DONE]";
+
+    // Completion budget assumed when a request does not cap max_tokens
+    private static final int DEFAULT_COMPLETION_TOKENS = 1000;
+
     private final WebClient aiWebClient;
     private final ObjectMapper objectMapper;
+    private final AIRequestScheduler scheduler;
 
     @Value("${ai.model:gpt-3.5-turbo}")
     private String aiModel;
 
     @Autowired
-    public AIService(@Qualifier("aiWebClient") WebClient aiWebClient, ObjectMapper objectMapper) {
+    public AIService(@Qualifier("aiWebClient") WebClient aiWebClient, ObjectMapper objectMapper,
+            AIRequestScheduler scheduler) {
         this.aiWebClient = aiWebClient;
         this.objectMapper = objectMapper;
+        this.scheduler = scheduler;
     }
 
     public Mono<String> generateContent(AIRequest request) {
+        return generateContent(request, AIPriority.forContentType(request.getContentType()));
+    }
+
+    public Mono<String> generateContent(AIRequest request, AIPriority priority) {
+        return scheduler.schedule(priority, estimateTokens(request), Mono.defer(() -> callCompletion(request)));
+    }
+
+    public Flux<String> streamContent(AIRequest request) {
+        return scheduler.scheduleStream(AIPriority.forContentType(request.getContentType()),
+                estimateTokens(request), Flux.defer(() -> callStreamingCompletion(request)));
+    }
+
+    public String getModel() {
+        return aiModel;
+    }
+
+    public double temperatureFor(String contentType) {
+        return getTemperatureForContentType(contentType);
+    }
+
+    public AISchedulerStatistics getSchedulerStatistics() {
+        return scheduler.stats();
+    }
+
+    private Mono<String> callCompletion(AIRequest request) {
+        Map<String, Object> requestBody = buildRequestBody(request);
+
+        // Make the API call
+        return aiWebClient.post()
+                .uri("/chat/completions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(requestBody))
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(responseBody -> {
+                    try {
+                        JsonNode rootNode = objectMapper.readTree(responseBody);
+                        String content = rootNode.path("choices").path(0).path("message").path("content").asText();
+                        return content;
+                    } catch (Exception e) {
+                        throw new RuntimeException("Failed to parse AI response", e);
+                    }
+                });
+    }
+
+    // Requests a streamed completion and emits each content delta as soon as
+    // its server-sent chunk is parsed
+    private Flux<String> callStreamingCompletion(AIRequest request) {
+        Map<String, Object> requestBody = buildRequestBody(request);
+        requestBody.put("stream", true);
+
+        return aiWebClient.post()
+                .uri("/chat/completions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromValue(requestBody))
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                })
+                .mapNotNull(ServerSentEvent::data)
+                .takeWhile(data -> !STREAM_DONE.equals(data.trim()))
+                .handle((data, sink) -> {
+                    try {
+                        JsonNode delta = objectMapper.readTree(data).path("choices").path(0).path("delta");
+                        String content = delta.path("content").asText("");
+                        if (!content.isEmpty()) {
+                            sink.next(content);
+                        }
+                    } catch (Exception e) {
+                        sink.error(new RuntimeException("Failed to parse AI stream chunk", e));
+                    }
+                });
+    }
+
+    private Map<String, Object> buildRequestBody(AIRequest request) {
         // Create the AI request body
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", aiModel);
@@ -56,22 +145,16 @@ public class AIService {
             requestBody.put("max_tokens", maxTokens);
         }
 
-        // Make the API call
-        return aiWebClient.post()
-                .uri("/chat/completions")
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(BodyInserters.fromValue(requestBody))
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(responseBody -> {
-                    try {
-                        JsonNode rootNode = objectMapper.readTree(responseBody);
-                        String content = rootNode.path("choices").path(0).path("message").path("content").asText();
-                        return content;
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to parse AI response", e);
-                    }
-                });
+        return requestBody;
+    }
+
+    // Rough token estimate (~4 characters per token) for prompt and system
+    // prompt, plus the completion budget the request may consume
+    private int estimateTokens(AIRequest request) {
+        int promptChars = getSystemPrompt(request.getContentType()).length()
+                + (request.getPrompt() != null ? request.getPrompt().length() : 0);
+        int completion = request.getMaxLength() != null ? request.getMaxLength() : DEFAULT_COMPLETION_TOKENS;
+        return promptChars / 4 + completion;
     }
 
     private String getSystemPrompt(String contentType) {
@@ -3,64 +3,122 @@ package com.example.backend.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.example.backend.exception.IndexNotReadyException;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.index.PokemonIndex;
 import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.search.PokemonSearchQuery;
+import com.example.backend.models.type.TypeName;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collections;
 import java.util.List;
 
 @Service
 public class AdvancedSearchService {
 
+    private static final int HYDRATION_CONCURRENCY = 8;
+
     private final PokemonService pokemonService;
+    private final PokemonIndexService indexService;
+    private final TypeMembershipService typeMembershipService;
+    private final RandomPokemonService randomPokemonService;
 
     @Autowired
-    public AdvancedSearchService(PokemonService pokemonService) {
+    public AdvancedSearchService(PokemonService pokemonService, PokemonIndexService indexService,
+            TypeMembershipService typeMembershipService, RandomPokemonService randomPokemonService) {
         this.pokemonService = pokemonService;
+        this.indexService = indexService;
+        this.typeMembershipService = typeMembershipService;
+        this.randomPokemonService = randomPokemonService;
     }
 
     public Flux<Pokemon> searchPokemonsByTypes(List<String> types) {
-        if (types.size() == 1) {
-            return pokemonService.getPokemonsByType(types.get(0));
-        } else {
-            return pokemonService.getPokemonsByType(types.get(0))
-                    .filter(pokemon -> {
-                        List<String> pokemonTypes = pokemon.getTypes().stream()
-                                .map(type -> type.getType().getName())
-                                .toList();
-                        return types.stream().allMatch(pokemonTypes::contains);
-                    });
+        return searchPokemonsByTypes(types, Collections.emptyList(), true);
+    }
+
+    // Set algebra runs on cached per-type bitsets; only the final matches are fetched
+    public Flux<Pokemon> searchPokemonsByTypes(List<String> types, List<String> excludedTypes, boolean matchAll) {
+        return typeMembershipService.resolve(types, excludedTypes, matchAll)
+                .flatMapMany(matches -> Flux.fromStream(matches.stream().mapToObj(Long::valueOf)))
+                .flatMapSequential(pokemonService::getPokemonById, HYDRATION_CONCURRENCY);
+    }
+
+    public Flux<Pokemon> getPokemonSortedByAttribute(String attribute, boolean ascending, int limit, int offset) {
+        PokemonSearchQuery query = PokemonSearchQuery.builder()
+                .sortBy(attribute)
+                .ascending(ascending)
+                .limit(limit)
+                .offset(offset)
+                .build();
+        return search(query);
+    }
+
+    // Filters, sorts and pages over the whole dex in memory; only the
+    // resulting page is hydrated into full Pokémon objects
+    public Flux<Pokemon> search(PokemonSearchQuery query) {
+        String invalid = validate(query);
+        if (invalid != null) {
+            return Flux.error(new IllegalArgumentException(invalid));
         }
+
+        if (indexService.isReady()) {
+            return hydrate(indexService.current().search(query));
+        }
+        indexService.refreshInBackground();
+        return searchWithoutIndex(query);
+    }
+
+    private String validate(PokemonSearchQuery query) {
+        if (query.getSortBy() != null && !PokemonIndex.SORT_ATTRIBUTES.contains(query.getSortBy())) {
+            return "Atributo de ordenação inválido: " + query.getSortBy()
+                    + " (use " + String.join(", ", PokemonIndex.SORT_ATTRIBUTES.stream().sorted().toList()) + ")";
+        }
+        if (query.getTypes() != null) {
+            for (String type : query.getTypes()) {
+                if (TypeName.ordinalOf(type) < 0) {
+                    return "Tipo desconhecido: " + type;
+                }
+            }
+        }
+        return null;
+    }
+
+    // While the index is being built: a type filter narrows the candidates to
+    // that type's members (one /type call each), which are indexed on the fly;
+    // an unfiltered id-ordered page is read straight from the list endpoint.
+    // Anything else would need the whole dex, so it is reported as not ready.
+    private Flux<Pokemon> searchWithoutIndex(PokemonSearchQuery query) {
+        if (query.getTypes() != null && !query.getTypes().isEmpty()) {
+            return typeMembershipService.resolve(query.getTypes(), Collections.emptyList(), true)
+                    .flatMapMany(matches -> Flux.fromStream(matches.stream().mapToObj(Long::valueOf)))
+                    .flatMapSequential(pokemonService::getPokemonById, HYDRATION_CONCURRENCY)
+                    .collectList()
+                    .flatMapMany(candidates -> hydrate(PokemonIndex.of(candidates).search(query)));
+        }
+        boolean idOrder = query.getSortBy() == null || "id".equals(query.getSortBy());
+        if (idOrder && query.isAscending() && !hasRangeFilter(query)) {
+            return pokemonService.getAllPokemons(query.getLimit(), query.getOffset());
+        }
+        return Flux.error(new IndexNotReadyException(
+                "Índice de busca ainda em construção, tente novamente em instantes"));
+    }
+
+    private boolean hasRangeFilter(PokemonSearchQuery query) {
+        return query.getMinHeight() != null || query.getMaxHeight() != null
+                || query.getMinWeight() != null || query.getMaxWeight() != null
+                || query.getMinBaseExperience() != null || query.getMaxBaseExperience() != null;
     }
 
-    public Flux<Pokemon> getPokemonSortedByAttribute(String attribute, boolean ascending) {
-        return pokemonService.getAllPokemons(20, 0)
-                .sort((p1, p2) -> {
-                    int result = 0;
-                    switch (attribute) {
-                        case "id":
-                            result = p1.getId().compareTo(p2.getId());
-                            break;
-                        case "name":
-                            result = p1.getName().compareTo(p2.getName());
-                            break;
-                        case "height":
-                            result = p1.getHeight().compareTo(p2.getHeight());
-                            break;
-                        case "weight":
-                            result = p1.getWeight().compareTo(p2.getWeight());
-                            break;
-                        case "base_experience":
-                            result = p1.getBaseExperience().compareTo(p2.getBaseExperience());
-                            break;
-                    }
-                    return ascending ? result : -result;
-                });
+    private Flux<Pokemon> hydrate(List<Long> ids) {
+        return Flux.fromIterable(ids).flatMapSequential(pokemonService::getPokemonById, HYDRATION_CONCURRENCY);
     }
 
-    public Mono<Pokemon> getRandomPokemon(int maxId) {
-        long randomId = (long) (Math.random() * maxId) + 1;
-        return pokemonService.getPokemonById(randomId);
+    public Mono<Pokemon> getRandomPokemon(String type, String generation, Boolean legendary, Integer maxId) {
+        return randomPokemonService.randomPokemon(type, generation, legendary, maxId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(
+                        "Nenhum Pokémon encontrado para os filtros informados")));
     }
-}
\ No newline at end of file
+}
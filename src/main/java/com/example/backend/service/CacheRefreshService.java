@@ -0,0 +1,39 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.ReactiveCacheManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+// Periodically reloads the most frequently used cache entries shortly before
+// their soft TTL, so hot keys are refreshed off the request path
+@Service
+public class CacheRefreshService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheRefreshService.class);
+
+    private final ReactiveCacheManager cacheManager;
+
+    @Value("${cache.refresh-ahead.interval:PT1M}")
+    private Duration interval;
+
+    @Autowired
+    public CacheRefreshService(ReactiveCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Scheduled(initialDelayString = "${cache.refresh-ahead.interval:PT1M}",
+            fixedDelayString = "${cache.refresh-ahead.interval:PT1M}")
+    public void refreshHottest() {
+        // Anything going stale before the next run is refreshed now
+        int refreshed = cacheManager.refreshHottest(interval);
+        if (refreshed > 0) {
+            log.debug("Refresh-ahead started {} cache reloads", refreshed);
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package com.example.backend.service;
 
+import com.example.backend.index.TypeChart;
 import com.example.backend.models.comparison.PokemonComparison;
 import com.example.backend.models.comparison.StatComparison;
 import com.example.backend.models.pokemon.Pokemon;
 import com.example.backend.models.pokemon.PokemonType;
 import com.example.backend.models.type.TypeEffectiveness;
+import com.example.backend.models.type.TypeName;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -17,13 +24,31 @@ import java.util.stream.Collectors;
 @Service
 public class ComparisonService {
 
+    private static final Logger log = LoggerFactory.getLogger(ComparisonService.class);
+
     private final PokemonService pokemonService;
-    private final Map<String, Map<String, Double>> typeEffectivenessChart;
+    private volatile TypeChart typeChart = TypeChart.standard();
+
+    @Value("${comparison.type-chart.source:builtin}")
+    private String typeChartSource;
 
     @Autowired
     public ComparisonService(PokemonService pokemonService) {
         this.pokemonService = pokemonService;
-        this.typeEffectivenessChart = initializeTypeChart();
+    }
+
+    // Optionally replaces the built-in chart with the upstream damage relations
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if ("upstream".equalsIgnoreCase(typeChartSource)) {
+            loadTypeChartFromUpstream().subscribe(
+                    chart -> typeChart = chart,
+                    e -> log.warn("Keeping built-in type chart, upstream load failed: {}", e.getMessage()));
+        }
+    }
+
+    public TypeChart getTypeChart() {
+        return typeChart;
     }
 
     public Flux<Pokemon> comparePokemons(List<Long> pokemonIds) {
@@ -207,14 +232,18 @@ public class ComparisonService {
     }
 
     private TypeEffectiveness calculateTypeEffectiveness(Pokemon pokemon) {
+        TypeChart chart = typeChart;
         List<PokemonType> types = pokemon.getTypes();
-        List<String> pokemonTypes = types.stream()
-                .map(type -> type.getType().getName())
-                .collect(Collectors.toList());
 
         // Get primary and secondary types
-        String primaryType = pokemonTypes.isEmpty() ? null : pokemonTypes.get(0);
-        String secondaryType = pokemonTypes.size() > 1 ? pokemonTypes.get(1) : null;
+        String primaryType = types.isEmpty() ? null : types.get(0).getType().getName();
+        String secondaryType = types.size() > 1 ? types.get(1).getType().getName() : null;
+        int primary = TypeName.ordinalOf(primaryType);
+        int secondary = TypeName.ordinalOf(secondaryType);
+        if (primary < 0) {
+            primary = secondary;
+            secondary = -1;
+        }
 
         // Lists to store effectiveness data
         List<String> strongAgainst = new ArrayList<>();
@@ -222,44 +251,29 @@ public class ComparisonService {
         List<String> resistantTo = new ArrayList<>();
         List<String> immuneTo = new ArrayList<>();
 
-        // All possible types
-        String[] allTypes = {
-                "normal", "fire", "water", "electric", "grass", "ice",
-                "fighting", "poison", "ground", "flying", "psychic", "bug",
-                "rock", "ghost", "dragon", "dark", "steel", "fairy"
-        };
-
-        // Calculate offensive effectiveness (what this Pokémon is strong against)
-        for (String defenderType : allTypes) {
-            double maxEffectiveness = 1.0;
-
-            // Check effectiveness of each of this Pokémon's types against the defender type
-            for (String attackerType : pokemonTypes) {
-                double effectiveness = getTypeEffectiveness(attackerType, defenderType);
-                maxEffectiveness = Math.max(maxEffectiveness, effectiveness);
+        if (primary >= 0) {
+            // Offensive: best multiplier of this Pokémon's types against each defender type
+            for (int defender = 0; defender < TypeName.COUNT; defender++) {
+                double best = chart.effectiveness(primary, defender);
+                if (secondary >= 0) {
+                    best = Math.max(best, chart.effectiveness(secondary, defender));
+                }
+                if (best > 1.0) {
+                    strongAgainst.add(TypeName.byOrdinal(defender).getApiName());
+                }
             }
 
-            if (maxEffectiveness > 1.0) {
-                strongAgainst.add(defenderType);
-            }
-        }
-
-        // Calculate defensive effectiveness (what this Pokémon is weak against,
-        // resistant to, or immune to)
-        for (String attackerType : allTypes) {
-            double effectivenessProduct = 1.0;
-
-            // Calculate combined effectiveness against all of this Pokémon's types
-            for (String defenderType : pokemonTypes) {
-                effectivenessProduct *= getTypeEffectiveness(attackerType, defenderType);
-            }
-
-            if (effectivenessProduct == 0.0) {
-                immuneTo.add(attackerType);
-            } else if (effectivenessProduct < 1.0) {
-                resistantTo.add(attackerType);
-            } else if (effectivenessProduct > 1.0) {
-                weakAgainst.add(attackerType);
+            // Defensive: precomputed combined multiplier for this type combination
+            double[] defensive = chart.defensiveMultipliers(primary, secondary);
+            for (int attacker = 0; attacker < TypeName.COUNT; attacker++) {
+                double multiplier = defensive[attacker];
+                if (multiplier == 0.0) {
+                    immuneTo.add(TypeName.byOrdinal(attacker).getApiName());
+                } else if (multiplier < 1.0) {
+                    resistantTo.add(TypeName.byOrdinal(attacker).getApiName());
+                } else if (multiplier > 1.0) {
+                    weakAgainst.add(TypeName.byOrdinal(attacker).getApiName());
+                }
             }
         }
 
@@ -273,110 +287,10 @@ public class ComparisonService {
                 .build();
     }
 
-    private double getTypeEffectiveness(String attackerType, String defenderType) {
-        if (!typeEffectivenessChart.containsKey(attackerType) ||
-                !typeEffectivenessChart.get(attackerType).containsKey(defenderType)) {
-            return 1.0;
-        }
-
-        return typeEffectivenessChart.get(attackerType).get(defenderType);
-    }
-
-    private Map<String, Map<String, Double>> initializeTypeChart() {
-        Map<String, Map<String, Double>> chart = new HashMap<>();
-
-        String[] types = {
-                "normal", "fire", "water", "electric", "grass", "ice",
-                "fighting", "poison", "ground", "flying", "psychic", "bug",
-                "rock", "ghost", "dragon", "dark", "steel", "fairy"
-        };
-
-        // Set default effectiveness (1.0) for all type combinations
-        for (String attackType : types) {
-            Map<String, Double> defenseMap = new HashMap<>();
-            for (String defendType : types) {
-                defenseMap.put(defendType, 1.0);
-            }
-            chart.put(attackType, defenseMap);
-        }
-
-        // Normal type
-        chart.get("normal").put("rock", 0.5);
-        chart.get("normal").put("ghost", 0.0);
-        chart.get("normal").put("steel", 0.5);
-
-        // Fire type
-        chart.get("fire").put("fire", 0.5);
-        chart.get("fire").put("water", 0.5);
-        chart.get("fire").put("grass", 2.0);
-        chart.get("fire").put("ice", 2.0);
-        chart.get("fire").put("bug", 2.0);
-        chart.get("fire").put("rock", 0.5);
-        chart.get("fire").put("dragon", 0.5);
-        chart.get("fire").put("steel", 2.0);
-
-        // Water type
-        chart.get("water").put("fire", 2.0);
-        chart.get("water").put("water", 0.5);
-        chart.get("water").put("grass", 0.5);
-        chart.get("water").put("ground", 2.0);
-        chart.get("water").put("rock", 2.0);
-        chart.get("water").put("dragon", 0.5);
-
-        // Electric type
-        chart.get("electric").put("water", 2.0);
-        chart.get("electric").put("electric", 0.5);
-        chart.get("electric").put("grass", 0.5);
-        chart.get("electric").put("ground", 0.0);
-        chart.get("electric").put("flying", 2.0);
-        chart.get("electric").put("dragon", 0.5);
-
-        // Grass type
-        chart.get("grass").put("fire", 0.5);
-        chart.get("grass").put("water", 2.0);
-        chart.get("grass").put("grass", 0.5);
-        chart.get("grass").put("poison", 0.5);
-        chart.get("grass").put("ground", 2.0);
-        chart.get("grass").put("flying", 0.5);
-        chart.get("grass").put("bug", 0.5);
-        chart.get("grass").put("rock", 2.0);
-        chart.get("grass").put("dragon", 0.5);
-        chart.get("grass").put("steel", 0.5);
-
-        // Ice type
-        chart.get("ice").put("fire", 0.5);
-        chart.get("ice").put("water", 0.5);
-        chart.get("ice").put("grass", 2.0);
-        chart.get("ice").put("ice", 0.5);
-        chart.get("ice").put("ground", 2.0);
-        chart.get("ice").put("flying", 2.0);
-        chart.get("ice").put("dragon", 2.0);
-        chart.get("ice").put("steel", 0.5);
-
-        // Fighting type
-        chart.get("fighting").put("normal", 2.0);
-        chart.get("fighting").put("ice", 2.0);
-        chart.get("fighting").put("poison", 0.5);
-        chart.get("fighting").put("flying", 0.5);
-        chart.get("fighting").put("psychic", 0.5);
-        chart.get("fighting").put("bug", 0.5);
-        chart.get("fighting").put("rock", 2.0);
-        chart.get("fighting").put("ghost", 0.0);
-        chart.get("fighting").put("dark", 2.0);
-        chart.get("fighting").put("steel", 2.0);
-        chart.get("fighting").put("fairy", 0.5);
-
-        // Poison type
-        chart.get("poison").put("grass", 2.0);
-        chart.get("poison").put("poison", 0.5);
-        chart.get("poison").put("ground", 0.5);
-        chart.get("poison").put("rock", 0.5);
-        chart.get("poison").put("ghost", 0.5);
-        chart.get("poison").put("steel", 0.0);
-        chart.get("poison").put("fairy", 2.0);
-
-        // Add more type matchups as needed
-
-        return chart;
+    private Mono<TypeChart> loadTypeChartFromUpstream() {
+        return Flux.fromArray(TypeName.values())
+                .flatMap(type -> pokemonService.getTypeByName(type.getApiName()))
+                .collectMap(PokemonType::getName, PokemonType::getDamageRelations)
+                .map(TypeChart::fromDamageRelations);
     }
 }
\ No newline at end of file
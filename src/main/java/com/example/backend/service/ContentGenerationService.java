@@ -1,31 +1,54 @@
 package com.example.backend.service;
 
+import com.example.backend.ai.AIPriority;
+import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.models.pokemon.Pokemon;
 import com.example.backend.models.ai.AIRequest;
 import com.example.backend.models.content.ContentMetadata;
 import com.example.backend.models.content.GeneratedContent;
 import com.example.backend.models.content.GenerationRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Supplier;
 
 @Service
 public class ContentGenerationService {
 
+    private static final Logger log = LoggerFactory.getLogger(ContentGenerationService.class);
+
     private final PokemonService pokemonService;
     private final AIService aiService;
+    private final GeneratedContentCacheService contentCacheService;
+    private final RandomPokemonService randomPokemonService;
+
+    @Value("${content.generation.timeout:60s}")
+    private Duration contentTimeout;
+
+    @Value("${content.generation.image-prompt-timeout:15s}")
+    private Duration imagePromptTimeout;
 
     @Autowired
-    public ContentGenerationService(PokemonService pokemonService, AIService aiService) {
+    public ContentGenerationService(PokemonService pokemonService, AIService aiService,
+            GeneratedContentCacheService contentCacheService, RandomPokemonService randomPokemonService) {
         this.pokemonService = pokemonService;
         this.aiService = aiService;
+        this.contentCacheService = contentCacheService;
+        this.randomPokemonService = randomPokemonService;
     }
 
-    public Mono<GeneratedContent> generateContent(GenerationRequest request) {
+    public Mono<GeneratedContent> generateContent(GenerationRequest original) {
+        GenerationRequest request = normalise(original);
         switch (request.getContentType().toLowerCase()) {
             case "story":
                 return generateStory(request);
@@ -39,57 +62,65 @@ public class ContentGenerationService {
         }
     }
 
+    // Streams the generated text as it arrives from the AI provider
+    public Flux<String> streamContent(GenerationRequest original) {
+        GenerationRequest request = normalise(original);
+        switch (request.getContentType().toLowerCase()) {
+            case "story":
+                return resolveStoryPokemon(request)
+                        .flatMapMany(pokemon -> aiService.streamContent(buildStoryAIRequest(pokemon, request)));
+            case "strategy":
+                return resolveTeam(request)
+                        .flatMapMany(team -> aiService.streamContent(buildStrategyAIRequest(team, request)));
+            case "pokedex":
+                return resolvePokedexPokemon(request)
+                        .flatMapMany(pokemon -> aiService.streamContent(buildPokedexAIRequest(pokemon, request)));
+            default:
+                return Flux.error(new IllegalArgumentException(
+                        "Invalid content type. Supported types: story, strategy, pokedex"));
+        }
+    }
+
     private Mono<GeneratedContent> generateStory(GenerationRequest request) {
+        return resolveStoryPokemon(request).flatMap(pokemon -> generateStoryForPokemon(pokemon, request));
+    }
+
+    private Mono<Pokemon> resolveStoryPokemon(GenerationRequest request) {
         // Determine which Pokémon to feature
-        Mono<Pokemon> pokemonMono;
         if (request.getPokemonId() != null) {
-            pokemonMono = pokemonService.getPokemonById(request.getPokemonId());
+            return pokemonService.getPokemonById(request.getPokemonId());
         } else if (request.getPokemonName() != null && !request.getPokemonName().isEmpty()) {
-            pokemonMono = pokemonService.getPokemonByName(request.getPokemonName().toLowerCase());
-        } else {
-            // Default to a random Pokémon if none specified
-            return pokemonService.getAllPokemons(100, 0)
-                    .collectList()
-                    .flatMap(pokemonList -> {
-                        if (pokemonList.isEmpty()) {
-                            return Mono.error(new RuntimeException("No Pokémon available"));
-                        }
-                        int randomIndex = new Random().nextInt(pokemonList.size());
-                        return Mono.just(pokemonList.get(randomIndex));
-                    })
-                    .flatMap(pokemon -> generateStoryForPokemon(pokemon, request));
+            return pokemonService.getPokemonByName(request.getPokemonName().toLowerCase());
         }
 
-        return pokemonMono.flatMap(pokemon -> generateStoryForPokemon(pokemon, request));
+        // Default to a random Pokémon if none specified
+        return randomPokemonService.randomPokemon()
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Nenhum Pokémon disponível")));
     }
 
-    private Mono<GeneratedContent> generateStoryForPokemon(Pokemon pokemon, GenerationRequest request) {
-        // Create a detailed prompt for the AI
-        String prompt = buildStoryPrompt(pokemon, request);
-
+    private AIRequest buildStoryAIRequest(Pokemon pokemon, GenerationRequest request) {
         AIRequest aiRequest = new AIRequest();
-        aiRequest.setPrompt(prompt);
+        aiRequest.setPrompt(buildStoryPrompt(pokemon, request));
         aiRequest.setContentType("story");
         aiRequest.setSubject(pokemon.getName());
         aiRequest.setMaxLength(request.getMaxLength() != null ? request.getMaxLength() : 1500);
+        return aiRequest;
+    }
 
-        return aiService.generateContent(aiRequest)
-                .flatMap(storyText -> {
-                    // Generate image prompt if requested
-                    if (Boolean.TRUE.equals(request.getIncludeImagePrompt())) {
-                        return generateImagePrompt(pokemon, "story")
-                                .map(imagePrompt -> createGeneratedContent(
-                                        "The Adventure of " + capitalize(pokemon.getName()),
-                                        storyText, "story", pokemon, null, request, imagePrompt));
-                    } else {
-                        return Mono.just(createGeneratedContent(
-                                "The Adventure of " + capitalize(pokemon.getName()),
-                                storyText, "story", pokemon, null, request, null));
-                    }
-                });
+    private Mono<GeneratedContent> generateStoryForPokemon(Pokemon pokemon, GenerationRequest request) {
+        AIRequest aiRequest = buildStoryAIRequest(pokemon, request);
+        return withContentCache(aiRequest, request, () -> generateWithImagePrompt(aiRequest,
+                Mono.defer(() -> generateImagePrompt(pokemon, "story")), request, AIPriority.BULK)
+                .map(result -> createGeneratedContent(
+                        "The Adventure of " + capitalize(pokemon.getName()),
+                        result.getT1(), "story", pokemon, null, request, result.getT2().orElse(null))));
     }
 
     private Mono<GeneratedContent> generateStrategy(GenerationRequest request) {
+        return resolveTeam(request).flatMap(team -> generateStrategyForTeam(team, generateTeamTitle(team), request));
+    }
+
+    private Mono<List<Pokemon>> resolveTeam(GenerationRequest request) {
         // Check if we have team members specified
         if ((request.getTeamMembers() == null || request.getTeamMembers().isEmpty()) &&
                 (request.getTeamIds() == null || request.getTeamIds().isEmpty())) {
@@ -100,13 +131,7 @@ public class ContentGenerationService {
                         ? pokemonService.getPokemonById(request.getPokemonId())
                         : pokemonService.getPokemonByName(request.getPokemonName().toLowerCase());
 
-                return pokemonMono.flatMap(pokemon -> {
-                    // Generate strategy for single Pokémon
-                    return generateStrategyForTeam(
-                            Collections.singletonList(pokemon),
-                            "Battle Strategy for " + capitalize(pokemon.getName()),
-                            request);
-                });
+                return pokemonMono.map(Collections::singletonList);
             } else {
                 return Mono.error(new IllegalArgumentException(
                         "Either teamMembers, teamIds, or a single Pokémon must be specified for a strategy"));
@@ -118,94 +143,156 @@ public class ContentGenerationService {
             return Flux.fromIterable(request.getTeamIds())
                     .flatMap(pokemonService::getPokemonById)
                     .collectList()
-                    .flatMap(team -> {
-                        if (team.isEmpty()) {
-                            return Mono.error(new RuntimeException("No valid Pokémon found for the specified IDs"));
-                        }
-
-                        // Generate title based on team
-                        String title = generateTeamTitle(team);
-                        return generateStrategyForTeam(team, title, request);
-                    });
+                    .flatMap(team -> team.isEmpty()
+                            ? Mono.<List<Pokemon>>error(
+                                    new RuntimeException("No valid Pokémon found for the specified IDs"))
+                            : Mono.just(team));
         }
 
         // Handle team specified by names
         return Flux.fromIterable(request.getTeamMembers())
                 .flatMap(name -> pokemonService.getPokemonByName(name.toLowerCase()))
                 .collectList()
-                .flatMap(team -> {
-                    if (team.isEmpty()) {
-                        return Mono.error(new RuntimeException("No valid Pokémon found for the specified names"));
-                    }
-
-                    // Generate title based on team
-                    String title = generateTeamTitle(team);
-                    return generateStrategyForTeam(team, title, request);
-                });
+                .flatMap(team -> team.isEmpty()
+                        ? Mono.<List<Pokemon>>error(
+                                new RuntimeException("No valid Pokémon found for the specified names"))
+                        : Mono.just(team));
     }
 
-    private Mono<GeneratedContent> generateStrategyForTeam(List<Pokemon> team, String title,
-            GenerationRequest request) {
-        // Create a detailed prompt for the AI
-        String prompt = buildStrategyPrompt(team, request);
-
+    private AIRequest buildStrategyAIRequest(List<Pokemon> team, GenerationRequest request) {
         AIRequest aiRequest = new AIRequest();
-        aiRequest.setPrompt(prompt);
+        aiRequest.setPrompt(buildStrategyPrompt(team, request));
         aiRequest.setContentType("strategy");
         aiRequest.setSubject("team_strategy");
         aiRequest.setMaxLength(request.getMaxLength() != null ? request.getMaxLength() : 2000);
+        return aiRequest;
+    }
 
-        return aiService.generateContent(aiRequest)
-                .flatMap(strategyText -> {
-                    // Generate image prompt if requested
-                    if (Boolean.TRUE.equals(request.getIncludeImagePrompt())) {
-                        return generateImagePrompt(team, "strategy")
-                                .map(imagePrompt -> createGeneratedContent(
-                                        title, strategyText, "strategy", null, team, request, imagePrompt));
-                    } else {
-                        return Mono.just(createGeneratedContent(
-                                title, strategyText, "strategy", null, team, request, null));
-                    }
-                });
+    private Mono<GeneratedContent> generateStrategyForTeam(List<Pokemon> team, String title,
+            GenerationRequest request) {
+        AIRequest aiRequest = buildStrategyAIRequest(team, request);
+        return withContentCache(aiRequest, request, () -> generateWithImagePrompt(aiRequest,
+                Mono.defer(() -> generateImagePrompt(team, "strategy")), request, AIPriority.STANDARD)
+                .map(result -> createGeneratedContent(
+                        title, result.getT1(), "strategy", null, team, request, result.getT2().orElse(null))));
+    }
+
+    // Used by the warm-up job: always stored, and queued behind interactive traffic
+    public Mono<GeneratedContent> warmPokedexEntry(GenerationRequest original) {
+        GenerationRequest request = normalise(original);
+        request.setContentType("pokedex");
+        request.setDeterministic(true);
+        return generatePokedexEntry(request, AIPriority.BULK);
     }
 
     private Mono<GeneratedContent> generatePokedexEntry(GenerationRequest request) {
+        return generatePokedexEntry(request, AIPriority.STANDARD);
+    }
+
+    private Mono<GeneratedContent> generatePokedexEntry(GenerationRequest request, AIPriority priority) {
+        return resolvePokedexPokemon(request).flatMap(pokemon -> {
+            AIRequest aiRequest = buildPokedexAIRequest(pokemon, request);
+            return withContentCache(aiRequest, request, () -> generateWithImagePrompt(aiRequest,
+                    Mono.defer(() -> generateImagePrompt(pokemon, "pokedex")), request, priority)
+                    .map(result -> createGeneratedContent(
+                            "Pokédex Entry: " + capitalize(pokemon.getName()),
+                            result.getT1(), "pokedex", pokemon, null, request, result.getT2().orElse(null))));
+        });
+    }
+
+    private Mono<Pokemon> resolvePokedexPokemon(GenerationRequest request) {
         // Determine which Pokémon to feature
-        Mono<Pokemon> pokemonMono;
         if (request.getPokemonId() != null) {
-            pokemonMono = pokemonService.getPokemonById(request.getPokemonId());
+            return pokemonService.getPokemonById(request.getPokemonId());
         } else if (request.getPokemonName() != null && !request.getPokemonName().isEmpty()) {
-            pokemonMono = pokemonService.getPokemonByName(request.getPokemonName().toLowerCase());
-        } else {
-            return Mono.error(new IllegalArgumentException(
-                    "Either pokemonId or pokemonName must be provided for a Pokédex entry"));
+            return pokemonService.getPokemonByName(request.getPokemonName().toLowerCase());
         }
+        return Mono.error(new IllegalArgumentException(
+                "Either pokemonId or pokemonName must be provided for a Pokédex entry"));
+    }
 
-        return pokemonMono.flatMap(pokemon -> {
-            // Create a detailed prompt for the AI
-            String prompt = buildPokedexPrompt(pokemon, request);
-
-            AIRequest aiRequest = new AIRequest();
-            aiRequest.setPrompt(prompt);
-            aiRequest.setContentType("pokedex");
-            aiRequest.setSubject(pokemon.getName());
-            aiRequest.setMaxLength(request.getMaxLength() != null ? request.getMaxLength() : 1200);
-
-            return aiService.generateContent(aiRequest)
-                    .flatMap(entryText -> {
-                        // Generate image prompt if requested
-                        if (Boolean.TRUE.equals(request.getIncludeImagePrompt())) {
-                            return generateImagePrompt(pokemon, "pokedex")
-                                    .map(imagePrompt -> createGeneratedContent(
-                                            "Pokédex Entry: " + capitalize(pokemon.getName()),
-                                            entryText, "pokedex", pokemon, null, request, imagePrompt));
-                        } else {
-                            return Mono.just(createGeneratedContent(
-                                    "Pokédex Entry: " + capitalize(pokemon.getName()),
-                                    entryText, "pokedex", pokemon, null, request, null));
-                        }
-                    });
-        });
+    private AIRequest buildPokedexAIRequest(Pokemon pokemon, GenerationRequest request) {
+        AIRequest aiRequest = new AIRequest();
+        aiRequest.setPrompt(buildPokedexPrompt(pokemon, request));
+        aiRequest.setContentType("pokedex");
+        aiRequest.setSubject(pokemon.getName());
+        aiRequest.setMaxLength(request.getMaxLength() != null ? request.getMaxLength() : 1200);
+        return aiRequest;
+    }
+
+    // In deterministic mode the result is addressed by everything that shapes it:
+    // the built prompt, model, temperature and the options applied afterwards
+    private Mono<GeneratedContent> withContentCache(AIRequest aiRequest, GenerationRequest request,
+            Supplier<Mono<GeneratedContent>> generator) {
+        if (!Boolean.TRUE.equals(request.getDeterministic())) {
+            return generator.get();
+        }
+        return contentCacheService.getOrGenerate(contentKey(aiRequest, request), generator);
+    }
+
+    private String contentKey(AIRequest aiRequest, GenerationRequest request) {
+        boolean includeImagePrompt = Boolean.TRUE.equals(request.getIncludeImagePrompt());
+        return GeneratedContentCacheService.contentKey(Arrays.asList(
+                aiService.getModel(),
+                aiRequest.getContentType(),
+                String.valueOf(aiService.temperatureFor(aiRequest.getContentType())),
+                String.valueOf(aiRequest.getMaxLength()),
+                aiRequest.getPrompt(),
+                includeImagePrompt ? String.valueOf(aiService.temperatureFor("image_prompt")) : "no-image",
+                // Stored in the metadata, so a hit must have been made for the same values
+                request.getLanguage(),
+                request.getFormat(),
+                request.getTargetAudience(),
+                request.getTone()));
+    }
+
+    // Options are case-insensitive and trimmed, with the defaults filled in, so
+    // the prompt, the content key and the stored metadata all see the same values
+    private static GenerationRequest normalise(GenerationRequest request) {
+        return GenerationRequest.builder()
+                .contentType(request.getContentType())
+                .pokemonName(request.getPokemonName())
+                .pokemonId(request.getPokemonId())
+                .teamMembers(request.getTeamMembers())
+                .teamIds(request.getTeamIds())
+                .targetAudience(normaliseOption(request.getTargetAudience(), null))
+                .language(normaliseOption(request.getLanguage(), "en"))
+                .tone(normaliseOption(request.getTone(), null))
+                .maxLength(request.getMaxLength())
+                .format(normaliseOption(request.getFormat(), "text"))
+                .includeImagePrompt(request.getIncludeImagePrompt())
+                .deterministic(request.getDeterministic())
+                .build();
+    }
+
+    private static String normaliseOption(String value, String defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return value.trim().toLowerCase();
+    }
+
+    // Issues the content call and, if requested, the image-prompt call at the same time.
+    // Each call has its own timeout; a slow or failed image prompt is dropped instead of
+    // failing the whole response.
+    private Mono<Tuple2<String, Optional<String>>> generateWithImagePrompt(AIRequest contentRequest,
+            Mono<String> imagePrompt, GenerationRequest request, AIPriority priority) {
+        Mono<String> content = aiService.generateContent(contentRequest, priority).timeout(contentTimeout);
+
+        if (!Boolean.TRUE.equals(request.getIncludeImagePrompt())) {
+            return content.map(text -> Tuples.of(text, Optional.<String>empty()));
+        }
+
+        Mono<Optional<String>> image = imagePrompt
+                .timeout(imagePromptTimeout)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    log.warn("Image prompt for {} skipped: {}", contentRequest.getSubject(), e.toString());
+                    return Mono.just(Optional.empty());
+                });
+
+        return Mono.zip(content, image);
     }
 
     // Helper methods to build prompts
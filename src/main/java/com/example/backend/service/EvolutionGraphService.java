@@ -0,0 +1,212 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.index.EvolutionGraph;
+import com.example.backend.models.evolution.EvolutionChain;
+import com.example.backend.models.evolution.EvolutionLine;
+import com.example.backend.models.evolution.EvolutionStage;
+import com.example.backend.models.pokemon.PokemonSpecies;
+import com.example.backend.util.PokeApiUrls;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+// Owns the in-memory EvolutionGraph. A full build loads every evolution chain;
+// until then, chains are fetched on demand (species -> chain) and merged in, so
+// each chain is only resolved once.
+@Service
+public class EvolutionGraphService {
+
+    private static final Logger log = LoggerFactory.getLogger(EvolutionGraphService.class);
+    private static final int FULL_LIST_LIMIT = 100000;
+    private static final Pattern NUMERIC_ID = Pattern.compile("\\d{1,9}");
+
+    private final PokemonService pokemonService;
+    private final AtomicReference<EvolutionGraph> graph = new AtomicReference<>(EvolutionGraph.EMPTY);
+    private Mono<EvolutionGraph> building;
+
+    @Value("${evolution.graph.concurrency:16}")
+    private int concurrency;
+
+    @Value("${evolution.graph.build-on-startup:false}")
+    private boolean buildOnStartup;
+
+    @Autowired
+    public EvolutionGraphService(PokemonService pokemonService) {
+        this.pokemonService = pokemonService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (buildOnStartup) {
+            build().subscribe(null, e -> log.error("Failed to build evolution graph", e));
+        }
+    }
+
+    public EvolutionGraph current() {
+        return graph.get();
+    }
+
+    public synchronized Mono<EvolutionGraph> build() {
+        if (building == null) {
+            building = loadAllChains()
+                    .doFinally(signal -> clearBuilding())
+                    .cache();
+        }
+        return building;
+    }
+
+    private synchronized void clearBuilding() {
+        building = null;
+    }
+
+    private Mono<EvolutionGraph> loadAllChains() {
+        return pokemonService.getEvolutionChainList(FULL_LIST_LIMIT, 0)
+                .flatMapMany(response -> Flux.fromIterable(response.getResults()))
+                .mapNotNull(result -> PokeApiUrls.extractId(result.getUrl()))
+                .filter(chainId -> current().chain(chainId.intValue()) == null)
+                .flatMap(chainId -> pokemonService.getEvolutionChainById(chainId)
+                        .onErrorResume(e -> {
+                            log.warn("Skipping evolution chain {}: {}", chainId, e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .collectList()
+                .map(chains -> {
+                    EvolutionGraph updated = merge(chains);
+                    log.info("Evolution graph holds {} chains, {} species", updated.chainCount(),
+                            updated.speciesCount());
+                    return updated;
+                });
+    }
+
+    private EvolutionGraph merge(List<EvolutionChain> chains) {
+        return chains.isEmpty() ? graph.get() : graph.updateAndGet(current -> current.withChains(chains));
+    }
+
+    // Species id of a name or numeric id, loading its chain when it is not known
+    // yet. Species already in the graph, or whose chain is, never trigger a merge.
+    private Mono<Integer> resolveSpecies(String nameOrId) {
+        EvolutionGraph current = graph.get();
+        boolean numeric = NUMERIC_ID.matcher(nameOrId).matches();
+        int known = numeric ? Integer.parseInt(nameOrId) : current.speciesIdOf(nameOrId);
+        if (current.contains(known)) {
+            return Mono.just(known);
+        }
+        Mono<PokemonSpecies> species = numeric
+                ? pokemonService.getPokemonSpeciesById(Long.valueOf(nameOrId))
+                : pokemonService.getPokemonSpeciesByName(nameOrId);
+        return species.flatMap(found -> {
+            if (found.getEvolutionChain() == null) {
+                return Mono.error(new ResourceNotFoundException("Cadeia evolutiva não encontrada para: " + nameOrId));
+            }
+
+            String url = found.getEvolutionChain().getUrl();
+
+            if (url == null || url.isEmpty()) {
+                return Mono.error(
+                        new ResourceNotFoundException("URL da cadeia evolutiva não encontrada para: " + nameOrId));
+            }
+
+            int speciesId = found.getId() != null ? found.getId().intValue() : 0;
+            Long chainId = PokeApiUrls.extractId(url);
+            EvolutionGraph latest = graph.get();
+            if (latest.contains(speciesId) || (chainId != null && latest.chain(chainId.intValue()) != null)) {
+                return Mono.just(speciesId);
+            }
+            return pokemonService.getEvolutionChainByUrl(url)
+                    .map(chain -> {
+                        EvolutionGraph merged = merge(Collections.singletonList(chain));
+                        return speciesId != 0 ? speciesId : merged.speciesIdOf(found.getName());
+                    });
+        });
+    }
+
+    public Mono<EvolutionChain> getEvolutionChain(String nameOrId) {
+        return resolveSpecies(nameOrId).flatMap(speciesId -> {
+            EvolutionGraph current = graph.get();
+            EvolutionChain chain = current.chain(current.chainOf(speciesId));
+            return chain != null
+                    ? Mono.just(chain)
+                    : Mono.error(new ResourceNotFoundException("Cadeia evolutiva não encontrada para: " + nameOrId));
+        });
+    }
+
+    // Previous stage, next stages and the whole line around one species. With
+    // hydrate, every member of the line is fetched in a single parallel batch.
+    public Mono<EvolutionLine> getEvolutionLine(String nameOrId, boolean hydrate) {
+        return resolveSpecies(nameOrId).flatMap(speciesId -> {
+            EvolutionGraph current = graph.get();
+            if (!current.contains(speciesId)) {
+                return Mono.error(new ResourceNotFoundException("Cadeia evolutiva não encontrada para: " + nameOrId));
+            }
+
+            int[] members = current.lineOf(speciesId);
+            List<EvolutionStage> line = new ArrayList<>(members.length);
+            for (int member : members) {
+                line.add(toStage(current, member));
+            }
+
+            Mono<List<EvolutionStage>> stages = hydrate
+                    ? Flux.fromIterable(line)
+                            .flatMapSequential(stage -> pokemonService.getPokemonById(stage.getSpeciesId())
+                                    .doOnNext(stage::setPokemon)
+                                    .onErrorResume(e -> {
+                                        log.warn("Could not hydrate {}: {}", stage.getName(), e.getMessage());
+                                        return Mono.empty();
+                                    }), Math.max(1, line.size()))
+                            .then(Mono.just(line))
+                    : Mono.just(line);
+
+            return stages.map(hydrated -> {
+                EvolutionStage self = stageOf(hydrated, speciesId);
+                int parent = current.parentOf(speciesId);
+                List<EvolutionStage> next = new ArrayList<>();
+                for (int child : current.childrenOf(speciesId)) {
+                    next.add(stageOf(hydrated, child));
+                }
+
+                return EvolutionLine.builder()
+                        .chainId((long) current.chainOf(speciesId))
+                        .species(self)
+                        .previous(parent != 0 ? stageOf(hydrated, parent) : null)
+                        .next(next)
+                        .line(hydrated)
+                        .build();
+            });
+        });
+    }
+
+    private EvolutionStage toStage(EvolutionGraph current, int speciesId) {
+        int parent = current.parentOf(speciesId);
+        return EvolutionStage.builder()
+                .speciesId((long) speciesId)
+                .name(current.nameOf(speciesId))
+                .stage(current.depthOf(speciesId) + 1)
+                .evolvesFromSpeciesId(parent != 0 ? (long) parent : null)
+                .baby(current.isBaby(speciesId))
+                .evolutionDetails(current.detailsOf(speciesId))
+                .build();
+    }
+
+    private EvolutionStage stageOf(List<EvolutionStage> line, int speciesId) {
+        for (EvolutionStage stage : line) {
+            if (Objects.equals(stage.getSpeciesId(), (long) speciesId)) {
+                return stage;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.backend.service;
+
+import com.example.backend.models.ai.AIRequest;
+import com.example.backend.models.pokemon.Pokemon;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.*;
+
+// Collects explanation requests from concurrent recommendation calls for a
+// short window and sends them to the model as one prompt. Every (base,
+// candidate) pair in the batch gets a numeric item id; the "ID: explanation"
+// answer lines are routed back to the requests that asked for them.
+@Service
+public class ExplanationBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ExplanationBatcher.class);
+    private static final int TOKENS_PER_EXPLANATION = 80;
+    private static final int MAX_BATCH_TOKENS = 4000;
+
+    private final AIService aiService;
+    private final Sinks.Many<PendingRequest> requests = Sinks.many().unicast().onBackpressureBuffer();
+    private final Duration timeout;
+    private final Disposable pipeline;
+
+    @Autowired
+    public ExplanationBatcher(AIService aiService,
+            @Value("${ai.explanation-batch.window:20ms}") Duration window,
+            @Value("${ai.explanation-batch.max-requests:8}") int maxRequests,
+            @Value("${ai.explanation-batch.concurrency:4}") int concurrency,
+            @Value("${ai.explanation-batch.timeout:30s}") Duration timeout) {
+        this.aiService = aiService;
+        this.timeout = timeout;
+        this.pipeline = requests.asFlux()
+                // Fair backpressure: a window closing while every dispatch slot is busy
+                // waits for demand instead of failing the pipeline
+                .bufferTimeout(maxRequests, window, true)
+                .flatMap(this::dispatch, concurrency)
+                .subscribe();
+    }
+
+    // Explanations for the candidates, keyed by candidate id; candidates the
+    // model skipped are simply absent
+    public Mono<Map<Long, String>> explain(Pokemon basePokemon, List<Pokemon> candidates) {
+        if (candidates.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return Mono.defer(() -> {
+            PendingRequest request = new PendingRequest(basePokemon, candidates);
+            Sinks.EmitResult result;
+            // Callers emit from arbitrary threads; the unicast sink needs serialized emissions
+            synchronized (requests) {
+                result = requests.tryEmitNext(request);
+            }
+            if (result.isFailure()) {
+                return Mono.error(new IllegalStateException("Explanation batcher unavailable: " + result));
+            }
+            // A caller that gives up (or times out) is dropped from its batch
+            // if that batch has not been sent yet
+            return request.result.asMono()
+                    .doOnCancel(() -> request.cancelled = true)
+                    .timeout(timeout);
+        });
+    }
+
+    // Any failure, including one while building the prompt, is reported to the
+    // callers of the batch and never reaches the shared pipeline
+    private Mono<Void> dispatch(List<PendingRequest> batch) {
+        return Mono.defer(() -> {
+            List<PendingRequest> pending = batch.stream()
+                    .filter(request -> !request.cancelled)
+                    .toList();
+            return pending.isEmpty() ? Mono.<Void>empty() : send(pending);
+        }).onErrorResume(e -> {
+            log.warn("Explanation batch of {} requests failed: {}", batch.size(), e.getMessage());
+            batch.forEach(request -> request.result.tryEmitError(e));
+            return Mono.empty();
+        });
+    }
+
+    private Mono<Void> send(List<PendingRequest> batch) {
+        // Identical pairs asked for by several callers share one item id
+        Map<String, Integer> itemIds = new LinkedHashMap<>();
+        List<Pokemon[]> items = new ArrayList<>();
+        for (PendingRequest request : batch) {
+            for (Pokemon candidate : request.candidates) {
+                String pair = request.basePokemon.getId() + ">" + candidate.getId();
+                if (!itemIds.containsKey(pair)) {
+                    items.add(new Pokemon[] { request.basePokemon, candidate });
+                    itemIds.put(pair, items.size());
+                }
+            }
+        }
+
+        AIRequest aiRequest = new AIRequest();
+        aiRequest.setPrompt(buildPrompt(items));
+        aiRequest.setContentType("explanation");
+        aiRequest.setSubject("pokemon_similarity");
+        aiRequest.setMaxLength(Math.min(MAX_BATCH_TOKENS, Math.max(1000, items.size() * TOKENS_PER_EXPLANATION)));
+
+        return aiService.generateContent(aiRequest)
+                .map(ExplanationBatcher::parseExplanations)
+                .doOnNext(answers -> batch.forEach(request -> {
+                    Map<Long, String> explanations = new HashMap<>();
+                    for (Pokemon candidate : request.candidates) {
+                        Integer itemId = itemIds.get(request.basePokemon.getId() + ">" + candidate.getId());
+                        String explanation = answers.get(itemId.longValue());
+                        if (explanation != null) {
+                            explanations.put(candidate.getId(), explanation);
+                        }
+                    }
+                    request.result.tryEmitValue(explanations);
+                }))
+                .switchIfEmpty(Mono.fromRunnable(() -> batch.forEach(
+                        request -> request.result.tryEmitValue(Collections.emptyMap()))))
+                .then();
+    }
+
+    private String buildPrompt(List<Pokemon[]> items) {
+        StringBuilder promptBuilder = new StringBuilder();
+        promptBuilder.append(
+                "Generate brief explanations (1-2 sentences each) for why the Pokémon in each of the following pairs are similar:\n\n");
+
+        for (int i = 0; i < items.size(); i++) {
+            Pokemon basePokemon = items.get(i)[0];
+            Pokemon pokemon = items.get(i)[1];
+            promptBuilder.append(i + 1).append(". ").append(pokemon.getName())
+                    .append(" compared to ").append(basePokemon.getName()).append(":\n");
+
+            // Add some context about the Pokémon
+            // Fields the upstream record lacks are reported as unknown
+            promptBuilder.append("  Types: ");
+            if (pokemon.getTypes() != null) {
+                pokemon.getTypes().stream()
+                        .filter(type -> type != null && type.getType() != null)
+                        .forEach(type -> promptBuilder.append(type.getType().getName()).append(", "));
+            }
+            promptBuilder.append("\n");
+
+            promptBuilder.append("  Height: ").append(tenths(pokemon.getHeight(), "m"))
+                    .append(", Weight: ").append(tenths(pokemon.getWeight(), "kg"))
+                    .append(", Base Experience: ").append(
+                            pokemon.getBaseExperience() != null ? pokemon.getBaseExperience() : "unknown")
+                    .append("\n\n");
+        }
+
+        promptBuilder.append("Format your response with one line per numbered pair:\n");
+        promptBuilder.append("1: Explanation for the first pair\n");
+        promptBuilder.append("2: Explanation for the second pair\n");
+        promptBuilder.append("etc.\n");
+        return promptBuilder.toString();
+    }
+
+    private static String tenths(Integer value, String unit) {
+        return value != null ? (value / 10.0) + unit : "unknown";
+    }
+
+    // Parses the "ID: explanation" lines of an AI response
+    static Map<Long, String> parseExplanations(String response) {
+        Map<Long, String> explanations = new HashMap<>();
+        String[] lines = response.split("\n");
+
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty())
+                continue;
+
+            // Parse ID: Explanation format
+            int colonIndex = line.indexOf(':');
+            if (colonIndex > 0) {
+                try {
+                    Long id = Long.parseLong(line.substring(0, colonIndex).trim());
+                    String explanation = line.substring(colonIndex + 1).trim();
+                    explanations.put(id, explanation);
+                } catch (NumberFormatException e) {
+                    // Skip lines that don't match expected format
+                    log.debug("Skipping explanation line: {}", line);
+                }
+            }
+        }
+
+        return explanations;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        requests.tryEmitComplete();
+        pipeline.dispose();
+    }
+
+    private static final class PendingRequest {
+        private final Pokemon basePokemon;
+        private final List<Pokemon> candidates;
+        private final Sinks.One<Map<Long, String>> result = Sinks.one();
+        private volatile boolean cancelled;
+
+        private PendingRequest(Pokemon basePokemon, List<Pokemon> candidates) {
+            this.basePokemon = basePokemon;
+            this.candidates = candidates;
+        }
+    }
+}
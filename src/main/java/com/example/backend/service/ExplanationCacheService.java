@@ -0,0 +1,86 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.ReactiveCache;
+import com.example.backend.cache.ReactiveCacheManager;
+import com.example.backend.repository.ExplanationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// AI-generated similarity explanations, stored per (base, candidate) pair in
+// memory and in H2 so a pair is only ever explained once.
+@Service
+public class ExplanationCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExplanationCacheService.class);
+
+    private final ExplanationRepository explanationRepository;
+    private final ReactiveCache<String, String> memoryCache;
+
+    @Autowired
+    public ExplanationCacheService(ExplanationRepository explanationRepository, ReactiveCacheManager cacheManager) {
+        this.explanationRepository = explanationRepository;
+        this.memoryCache = cacheManager.getCache("aiExplanation");
+    }
+
+    // Similarity is symmetric, so (a, b) and (b, a) share one entry
+    public static String pairKey(long baseId, long candidateId) {
+        return Math.min(baseId, candidateId) + ":" + Math.max(baseId, candidateId);
+    }
+
+    // Returns candidate id -> explanation for the pairs already explained
+    public Mono<Map<Long, String>> findExplanations(long baseId, Collection<Long> candidateIds) {
+        Map<Long, String> found = new HashMap<>();
+        List<Long> notInMemory = new ArrayList<>();
+        for (Long candidateId : candidateIds) {
+            String explanation = memoryCache.getIfPresent(pairKey(baseId, candidateId));
+            if (explanation != null) {
+                found.put(candidateId, explanation);
+            } else {
+                notInMemory.add(candidateId);
+            }
+        }
+        if (notInMemory.isEmpty()) {
+            return Mono.just(found);
+        }
+
+        return Mono.fromCallable(() -> {
+            List<String> keys = new ArrayList<>();
+            notInMemory.forEach(candidateId -> keys.add(pairKey(baseId, candidateId)));
+            return explanationRepository.findByPairKeys(keys);
+        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(stored -> {
+                    for (Long candidateId : notInMemory) {
+                        String key = pairKey(baseId, candidateId);
+                        String explanation = stored.get(key);
+                        if (explanation != null) {
+                            memoryCache.put(key, explanation);
+                            found.put(candidateId, explanation);
+                        }
+                    }
+                    return found;
+                })
+                .onErrorResume(e -> {
+                    log.warn("Explanation store lookup failed: {}", e.getMessage());
+                    return Mono.just(found);
+                });
+    }
+
+    public void storeInBackground(long baseId, Map<Long, String> explanations) {
+        explanations.forEach((candidateId, explanation) -> memoryCache.put(pairKey(baseId, candidateId), explanation));
+        Mono.fromRunnable(() -> explanations.forEach((candidateId, explanation) -> explanationRepository
+                .save(pairKey(baseId, candidateId), baseId, candidateId, explanation)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("Could not store AI explanations: {}", e.getMessage()));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.ReactiveCache;
+import com.example.backend.cache.ReactiveCacheManager;
+import com.example.backend.models.content.GeneratedContent;
+import com.example.backend.repository.GeneratedContentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Content-addressed store for deterministic generation: the key is a hash of
+// everything that shapes the model output, so an identical request returns the
+// stored GeneratedContent (same id) instead of calling the model again. Entries
+// live in memory and in H2, where the least recently read ones are evicted.
+@Service
+public class GeneratedContentCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneratedContentCacheService.class);
+
+    private final GeneratedContentRepository contentRepository;
+    private final ObjectMapper objectMapper;
+    private final ReactiveCache<String, GeneratedContent> memoryCache;
+
+    @Value("${content.cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Autowired
+    public GeneratedContentCacheService(GeneratedContentRepository contentRepository, ObjectMapper objectMapper,
+            ReactiveCacheManager cacheManager) {
+        this.contentRepository = contentRepository;
+        this.objectMapper = objectMapper;
+        this.memoryCache = cacheManager.getCache("generatedContent");
+    }
+
+    public static String contentKey(List<String> parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update((part != null ? part : "").getBytes(StandardCharsets.UTF_8));
+                // Separator so ("ab", "c") and ("a", "bc") hash differently
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Concurrent identical requests share a single generation
+    public Mono<GeneratedContent> getOrGenerate(String contentKey, Supplier<Mono<GeneratedContent>> generator) {
+        return memoryCache.get(contentKey, key -> findStored(key)
+                .switchIfEmpty(Mono.defer(() -> generator.get()
+                        .doOnNext(content -> storeInBackground(key, content)))));
+    }
+
+    public Mono<GeneratedContent> findStored(String contentKey) {
+        GeneratedContent cached = memoryCache.getIfPresent(contentKey);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.fromCallable(() -> contentRepository.findPayload(contentKey))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(payload -> payload.map(Mono::just).orElseGet(Mono::empty))
+                .flatMap(payload -> {
+                    try {
+                        return Mono.just(objectMapper.readValue(payload, GeneratedContent.class));
+                    } catch (JsonProcessingException e) {
+                        log.warn("Discarding unreadable generated content {}: {}", contentKey, e.getMessage());
+                        return Mono.<GeneratedContent>empty();
+                    }
+                })
+                .doOnNext(content -> touchInBackground(contentKey))
+                .onErrorResume(e -> {
+                    log.warn("Generated content lookup failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public void storeInBackground(String contentKey, GeneratedContent content) {
+        memoryCache.put(contentKey, content);
+        Mono.fromRunnable(() -> {
+            try {
+                contentRepository.save(contentKey, content.getId(), content.getContentType(),
+                        objectMapper.writeValueAsString(content));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Failed to serialize generated content " + content.getId(), e);
+            }
+            int excess = contentRepository.count() - maxEntries;
+            if (excess > 0) {
+                // Evicted entries leave memory too, so they are regenerated rather
+                // than served from a copy the store no longer has
+                contentRepository.evictLeastRecentlyUsed(excess).forEach(memoryCache::invalidate);
+            }
+        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("Could not store generated content: {}", e.getMessage()));
+    }
+
+    private void touchInBackground(String contentKey) {
+        Mono.fromRunnable(() -> contentRepository.touch(contentKey))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.debug("Could not update last access for {}: {}", contentKey, e.getMessage()));
+    }
+}
@@ -1,32 +1,68 @@
 package com.example.backend.service;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.example.backend.cache.ReactiveCache;
+import com.example.backend.cache.ReactiveCacheManager;
 import com.example.backend.models.pokemon.PokemonResponse;
 
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
+
 @Service
 public class GenerationService {
 
     private final WebClient webClient;
+    private final SnapshotService snapshotService;
+    private final ReactiveCache<String, Object> generationCache;
+    private final ReactiveCache<String, PokemonResponse> generationListCache;
 
-    public GenerationService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl("https://pokeapi.co/api/v2").build();
+    public GenerationService(@Qualifier("pokeApiWebClient") WebClient webClient, ReactiveCacheManager cacheManager,
+            SnapshotService snapshotService) {
+        this.webClient = webClient;
+        this.snapshotService = snapshotService;
+        this.generationCache = cacheManager.getCache("generation");
+        this.generationListCache = cacheManager.getCache("generationList");
     }
 
     public Mono<Object> getGenerationByName(String name) {
+        return generationCache.get(name,
+                key -> snapshotService.findByName(SnapshotService.GENERATION, key, Object.class)
+                        .switchIfEmpty(Mono.defer(() -> fetchGeneration(key))),
+                this::fetchGeneration);
+    }
+
+    public Mono<PokemonResponse> getGenerationList() {
+        return generationListCache.get("all",
+                key -> snapshotService.findPage(SnapshotService.GENERATION, 100, 0)
+                        .switchIfEmpty(Mono.defer(this::fetchGenerationList)),
+                key -> fetchGenerationList());
+    }
+
+    // Upstream reads used after a snapshot miss and for background refreshes,
+    // which must not be answered by the snapshot they are meant to update
+    private Mono<Object> fetchGeneration(String name) {
         return webClient.get()
                 .uri("/generation/{name}", name)
                 .retrieve()
-                .bodyToMono(Object.class);
+                .bodyToMono(Object.class)
+                .doOnNext(generation -> {
+                    if (generation instanceof Map<?, ?> fields && fields.get("id") instanceof Number id) {
+                        snapshotService.saveInBackground(SnapshotService.GENERATION, id.longValue(),
+                                String.valueOf(fields.get("name")), generation);
+                    }
+                });
     }
 
-    public Mono<PokemonResponse> getGenerationList() {
+    private Mono<PokemonResponse> fetchGenerationList() {
         return webClient.get()
                 .uri("/generation")
                 .retrieve()
-                .bodyToMono(PokemonResponse.class);
+                .bodyToMono(PokemonResponse.class)
+                .doOnNext(page -> snapshotService.saveIndexInBackground(SnapshotService.GENERATION,
+                        page.getResults()));
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,11 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.ReactiveCache;
+import com.example.backend.cache.ReactiveCacheManager;
 import com.example.backend.models.move.Move;
 import com.example.backend.models.pokemon.PokemonResponse;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
@@ -11,26 +14,51 @@ import reactor.core.publisher.Mono;
 public class MoveService {
 
     private final WebClient webClient;
+    private final SnapshotService snapshotService;
+    private final ReactiveCache<String, Move> moveCache;
+    private final ReactiveCache<String, PokemonResponse> moveListCache;
 
-    public MoveService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl("https://pokeapi.co/api/v2").build();
+    public MoveService(@Qualifier("pokeApiWebClient") WebClient webClient, ReactiveCacheManager cacheManager,
+            SnapshotService snapshotService) {
+        this.webClient = webClient;
+        this.snapshotService = snapshotService;
+        this.moveCache = cacheManager.getCache("move");
+        this.moveListCache = cacheManager.getCache("moveList");
     }
 
     public Mono<Move> getMoveByName(String name) {
-        return webClient.get()
-                .uri("/move/{name}", name)
-                .retrieve()
-                .bodyToMono(Move.class);
+        return moveCache.get(name,
+                key -> snapshotService.findByName(SnapshotService.MOVE, key, Move.class)
+                        .switchIfEmpty(Mono.defer(() -> fetchMove(key))),
+                this::fetchMove);
     }
 
     public Mono<Move> getMoveById(Long id) {
+        return moveCache.get(String.valueOf(id),
+                key -> snapshotService.findById(SnapshotService.MOVE, id, Move.class)
+                        .switchIfEmpty(Mono.defer(() -> fetchMove(id))),
+                key -> fetchMove(id));
+    }
+
+    public Mono<PokemonResponse> getMoveList(int limit, int offset) {
+        return moveListCache.get(limit + ":" + offset,
+                key -> snapshotService.findPage(SnapshotService.MOVE, limit, offset)
+                        .switchIfEmpty(Mono.defer(() -> fetchMoveList(limit, offset))),
+                key -> fetchMoveList(limit, offset));
+    }
+
+    // Upstream reads used after a snapshot miss and for background refreshes,
+    // which must not be answered by the snapshot they are meant to update
+    private Mono<Move> fetchMove(Object nameOrId) {
         return webClient.get()
-                .uri("/move/{id}", id)
+                .uri("/move/{key}", nameOrId)
                 .retrieve()
-                .bodyToMono(Move.class);
+                .bodyToMono(Move.class)
+                .doOnNext(move -> snapshotService.saveInBackground(
+                        SnapshotService.MOVE, move.getId(), move.getName(), move));
     }
 
-    public Mono<PokemonResponse> getMoveList(int limit, int offset) {
+    private Mono<PokemonResponse> fetchMoveList(int limit, int offset) {
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/move")
@@ -38,6 +66,7 @@ public class MoveService {
                         .queryParam("offset", offset)
                         .build())
                 .retrieve()
-                .bodyToMono(PokemonResponse.class);
+                .bodyToMono(PokemonResponse.class)
+                .doOnNext(page -> snapshotService.saveIndexInBackground(SnapshotService.MOVE, page.getResults()));
     }
-}
\ No newline at end of file
+}
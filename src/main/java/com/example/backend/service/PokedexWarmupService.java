@@ -0,0 +1,219 @@
+package com.example.backend.service;
+
+import com.example.backend.models.content.GenerationRequest;
+import com.example.backend.models.content.WarmupProgress;
+import com.example.backend.models.pokemon.PokemonResult;
+import com.example.backend.repository.PokedexWarmupRepository;
+import com.example.backend.util.PokeApiUrls;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Generates and stores a deterministic Pokédex entry for every Pokémon in each
+// configured format/audience variant, so the Pokédex endpoint becomes a local
+// read. Finished (variant, Pokémon) pairs are checkpointed in H2 and skipped
+// on the next run, unless their entry has since been evicted from the store.
+@Service
+public class PokedexWarmupService {
+
+    private static final Logger log = LoggerFactory.getLogger(PokedexWarmupService.class);
+    private static final String DEFAULT_AUDIENCE = "default";
+
+    private final PokemonService pokemonService;
+    private final ContentGenerationService contentGenerationService;
+    private final PokedexWarmupRepository warmupRepository;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final AtomicInteger completedCount = new AtomicInteger();
+    private final AtomicInteger generatedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    @Value("${content.pokedex-warmup.formats:text}")
+    private List<String> formats;
+
+    @Value("${content.pokedex-warmup.audiences:default}")
+    private List<String> audiences;
+
+    @Value("${content.pokedex-warmup.concurrency:4}")
+    private int concurrency;
+
+    @Value("${content.pokedex-warmup.run-on-startup:false}")
+    private boolean runOnStartup;
+
+    @Autowired
+    public PokedexWarmupService(PokemonService pokemonService, ContentGenerationService contentGenerationService,
+            PokedexWarmupRepository warmupRepository) {
+        this.pokemonService = pokemonService;
+        this.contentGenerationService = contentGenerationService;
+        this.warmupRepository = warmupRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (runOnStartup) {
+            tryStart();
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    // Claims the run before returning, so of several concurrent callers exactly
+    // one gets true; the run itself continues in the background
+    public boolean tryStart() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        run().subscribe(null, e -> log.error("Pokédex warm-up failed", e));
+        return true;
+    }
+
+    // The run is claimed on subscription and released as soon as it ends or is
+    // cancelled
+    public Mono<Void> warmUp() {
+        return Mono.defer(() -> running.compareAndSet(false, true) ? run() : Mono.<Void>empty());
+    }
+
+    private Mono<Void> run() {
+        totalCount.set(0);
+        completedCount.set(0);
+        generatedCount.set(0);
+        failedCount.set(0);
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+
+        return pokemonService.getPokemonList(100000, 0)
+                .flatMapMany(response -> {
+                    List<PokemonResult> pokemon = response.getResults();
+                    totalCount.set(pokemon.size() * variants().size());
+                    return Flux.fromIterable(variants())
+                            .concatMap(variant -> warmUpVariant(variant, pokemon));
+                })
+                .then()
+                .doOnTerminate(this::finish)
+                .doOnCancel(this::finish);
+    }
+
+    private void finish() {
+        finishedAt = LocalDateTime.now();
+        running.set(false);
+        log.info("Pokédex warm-up finished: {} generated, {} failed", generatedCount.get(), failedCount.get());
+    }
+
+    private Mono<Void> warmUpVariant(String variant, List<PokemonResult> pokemon) {
+        return Mono.fromCallable(() -> warmupRepository.findCompletedIds(variant))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(completedIds -> {
+                    completedCount.addAndGet(countCompleted(pokemon, completedIds));
+                    log.info("Pokédex warm-up {}: {} of {} entries already stored", variant, completedIds.size(),
+                            pokemon.size());
+                    return Flux.fromIterable(pokemon)
+                            .filter(result -> {
+                                Long id = PokeApiUrls.extractId(result.getUrl());
+                                return id != null && !completedIds.contains(id);
+                            });
+                })
+                .flatMap(result -> warmUpEntry(variant, result), concurrency)
+                .then();
+    }
+
+    // A failure for one entry, even before its request is built, only skips
+    // that entry
+    private Mono<Void> warmUpEntry(String variant, PokemonResult result) {
+        return Mono.defer(() -> {
+            Long pokemonId = PokeApiUrls.extractId(result.getUrl());
+            if (pokemonId == null) {
+                return Mono.<Void>empty();
+            }
+            String[] parts = variant.split("\\|", 2);
+            GenerationRequest request = GenerationRequest.builder()
+                    .pokemonId(pokemonId)
+                    .format(parts[0])
+                    .targetAudience(DEFAULT_AUDIENCE.equals(parts[1]) ? null : parts[1])
+                    .build();
+
+            return contentGenerationService.warmPokedexEntry(request)
+                    .flatMap(content -> Mono.fromRunnable(
+                            () -> warmupRepository.markCompleted(variant, pokemonId, content.getId()))
+                            .subscribeOn(Schedulers.boundedElastic()))
+                    .then();
+        })
+                .doOnSuccess(ignored -> {
+                    generatedCount.incrementAndGet();
+                    completedCount.incrementAndGet();
+                })
+                .onErrorResume(e -> {
+                    failedCount.incrementAndGet();
+                    log.warn("Skipping Pokédex entry {} ({}): {}", result.getName(), variant, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    public WarmupProgress getProgress() {
+        LocalDateTime start = startedAt;
+        double itemsPerMinute = 0.0;
+        if (start != null) {
+            LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+            long elapsedMillis = Math.max(1, Duration.between(start, end).toMillis());
+            itemsPerMinute = generatedCount.get() * 60_000.0 / elapsedMillis;
+        }
+
+        return WarmupProgress.builder()
+                .running(running.get())
+                .variants(variants())
+                .totalCount(totalCount.get())
+                .completedCount(completedCount.get())
+                .generatedCount(generatedCount.get())
+                .failedCount(failedCount.get())
+                .itemsPerMinute(itemsPerMinute)
+                .startedAt(start)
+                .finishedAt(finishedAt)
+                .build();
+    }
+
+    // One variant per "format|audience" combination
+    private List<String> variants() {
+        List<String> variants = new ArrayList<>();
+        for (String format : formats) {
+            if (format.isBlank()) {
+                continue;
+            }
+            for (String audience : audiences) {
+                variants.add(format.trim().toLowerCase() + "|"
+                        + (audience.isBlank() ? DEFAULT_AUDIENCE : audience.trim().toLowerCase()));
+            }
+        }
+        return variants;
+    }
+
+    private int countCompleted(List<PokemonResult> pokemon, Set<Long> completedIds) {
+        int count = 0;
+        for (PokemonResult result : pokemon) {
+            Long id = PokeApiUrls.extractId(result.getUrl());
+            if (id != null && completedIds.contains(id)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.backend.service;
+
+import com.example.backend.index.PokemonIndex;
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Owns the in-memory PokemonIndex. The first build loads the whole dex through
+// PokemonService (so it is served from the snapshot when available); later
+// refreshes only fetch Pokémon that are not indexed yet.
+@Service
+public class PokemonIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(PokemonIndexService.class);
+    private static final int FULL_LIST_LIMIT = 100000;
+
+    private final PokemonService pokemonService;
+    private final AtomicReference<PokemonIndex> index = new AtomicReference<>(PokemonIndex.EMPTY);
+    private Mono<PokemonIndex> refreshing;
+
+    @Value("${search.index.concurrency:16}")
+    private int concurrency;
+
+    @Value("${search.index.build-on-startup:false}")
+    private boolean buildOnStartup;
+
+    @Autowired
+    public PokemonIndexService(PokemonService pokemonService) {
+        this.pokemonService = pokemonService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (buildOnStartup) {
+            refresh().subscribe(null, e -> log.error("Failed to build Pokémon index", e));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${search.index.refresh-interval:PT1H}",
+            fixedDelayString = "${search.index.refresh-interval:PT1H}")
+    public void scheduledRefresh() {
+        if (isReady()) {
+            refresh().subscribe(null, e -> log.warn("Pokémon index refresh failed: {}", e.getMessage()));
+        }
+    }
+
+    public boolean isReady() {
+        return index.get().size() > 0;
+    }
+
+    public PokemonIndex current() {
+        return index.get();
+    }
+
+    // Starts a build unless one is running; callers fall back until isReady()
+    public void refreshInBackground() {
+        refresh().subscribe(null, e -> log.warn("Pokémon index build failed: {}", e.getMessage()));
+    }
+
+    public synchronized Mono<PokemonIndex> refresh() {
+        if (refreshing == null) {
+            refreshing = loadMissing()
+                    .doFinally(signal -> clearRefreshing())
+                    .cache();
+        }
+        return refreshing;
+    }
+
+    private synchronized void clearRefreshing() {
+        refreshing = null;
+    }
+
+    private Mono<PokemonIndex> loadMissing() {
+        return pokemonService.getPokemonList(FULL_LIST_LIMIT, 0)
+                .flatMapMany(response -> Flux.fromIterable(response.getResults()))
+                .map(PokemonResult::getName)
+                .filter(name -> !index.get().containsName(name))
+                .flatMap(name -> pokemonService.getPokemonByName(name)
+                        .onErrorResume(e -> {
+                            log.warn("Skipping {} while indexing: {}", name, e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .collectList()
+                .map(added -> {
+                    PokemonIndex updated = added.isEmpty() ? index.get() : index.get().withPokemon(added);
+                    index.set(updated);
+                    log.info("Pokémon index holds {} entries ({} added)", updated.size(), added.size());
+                    return updated;
+                });
+    }
+}
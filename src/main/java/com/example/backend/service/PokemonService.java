@@ -1,101 +1,398 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.ReactiveCache;
+import com.example.backend.cache.ReactiveCacheManager;
+import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.models.evolution.EvolutionChain;
 import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonBatchResult;
 import com.example.backend.models.pokemon.PokemonResponse;
+import com.example.backend.models.pokemon.PokemonResult;
 import com.example.backend.models.pokemon.PokemonSpecies;
 import com.example.backend.models.pokemon.PokemonType;
+import com.example.backend.util.PokeApiUrls;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
 @Service
 public class PokemonService {
 
+    private static final Logger log = LoggerFactory.getLogger(PokemonService.class);
+    private static final int FULL_LIST_LIMIT = 100000;
+    private static final Pattern NUMERIC_ID = Pattern.compile("\\d{1,18}");
+
     private final WebClient webClient;
+    private final SnapshotService snapshotService;
+    private final ReactiveCache<String, Pokemon> pokemonByNameCache;
+    private final ReactiveCache<Long, Pokemon> pokemonByIdCache;
+    private final ReactiveCache<String, PokemonResponse> pokemonListCache;
+    private final ReactiveCache<String, PokemonSpecies> speciesCache;
+    private final ReactiveCache<String, PokemonResponse> speciesListCache;
+    private final ReactiveCache<String, EvolutionChain> evolutionChainCache;
+    private final ReactiveCache<String, PokemonResponse> evolutionChainListCache;
+    private final ReactiveCache<String, PokemonType> typeCache;
+    private final ReactiveCache<String, Boolean> notFoundCache;
+    // Every Pokémon name from the list endpoint; empty until the first load
+    private final AtomicReference<Set<String>> knownNames = new AtomicReference<>(Set.of());
+
+    @Value("${pokeapi.fan-out.concurrency:8}")
+    private int fanOutConcurrency;
+
+    @Value("${pokeapi.fan-out.item-timeout:5s}")
+    private Duration fanOutItemTimeout;
+
+    @Value("${pokeapi.batch.max-size:300}")
+    private int batchMaxSize;
 
-    public PokemonService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl("https://pokeapi.co/api/v2").build();
+    @Value("${pokeapi.known-names.load-on-startup:true}")
+    private boolean loadKnownNamesOnStartup;
+
+    public PokemonService(@Qualifier("pokeApiWebClient") WebClient webClient, ReactiveCacheManager cacheManager,
+            SnapshotService snapshotService) {
+        this.webClient = webClient;
+        this.snapshotService = snapshotService;
+        this.pokemonByNameCache = cacheManager.getCache("pokemonByName");
+        this.pokemonByIdCache = cacheManager.getCache("pokemonById");
+        this.pokemonListCache = cacheManager.getCache("pokemonList");
+        this.speciesCache = cacheManager.getCache("species");
+        this.speciesListCache = cacheManager.getCache("speciesList");
+        this.evolutionChainCache = cacheManager.getCache("evolutionChain");
+        this.evolutionChainListCache = cacheManager.getCache("evolutionChainList");
+        this.typeCache = cacheManager.getCache("type");
+        this.notFoundCache = cacheManager.getCache("notFound");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (loadKnownNamesOnStartup) {
+            refreshKnownNames().subscribe(null, e -> log.warn("Could not load known Pokémon names: {}", e.getMessage()));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${pokeapi.known-names.refresh-interval:PT6H}",
+            fixedDelayString = "${pokeapi.known-names.refresh-interval:PT6H}")
+    public void scheduledKnownNamesRefresh() {
+        if (!knownNames.get().isEmpty()) {
+            refreshKnownNames().subscribe(null, e -> log.warn("Known Pokémon names refresh failed: {}", e.getMessage()));
+        }
+    }
+
+    public Mono<Integer> refreshKnownNames() {
+        return getPokemonList(FULL_LIST_LIMIT, 0)
+                .map(response -> response.getResults().stream()
+                        .map(PokemonResult::getName)
+                        .collect(Collectors.toUnmodifiableSet()))
+                .filter(names -> !names.isEmpty())
+                .doOnNext(names -> {
+                    knownNames.set(names);
+                    log.info("Loaded {} known Pokémon names", names.size());
+                })
+                .map(Set::size);
     }
 
     public Mono<Pokemon> getPokemonByName(String name) {
-        return webClient.get()
-                .uri("/pokemon/{name}", name)
-                .retrieve()
-                .bodyToMono(Pokemon.class);
+        return Mono.defer(() -> {
+            // The upstream also accepts ids here (/pokemon/25); they are never in
+            // the known-names list, so they go to the id lookup instead
+            if (NUMERIC_ID.matcher(name).matches()) {
+                return getPokemonById(Long.valueOf(name));
+            }
+            Set<String> names = knownNames.get();
+            if (!names.isEmpty() && !names.contains(name) && pokemonByNameCache.getIfPresent(name) == null) {
+                return Mono.error(new ResourceNotFoundException("Pokémon não encontrado: " + name));
+            }
+            return pokemonByNameCache.get(name,
+                    key -> snapshotService.findByName(SnapshotService.POKEMON, key, Pokemon.class)
+                            .doOnNext(pokemon -> pokemonByIdCache.put(pokemon.getId(), pokemon))
+                            .switchIfEmpty(Mono.defer(() -> fetchPokemonByName(key))),
+                    this::fetchPokemonByName);
+        });
     }
 
     public Mono<Pokemon> getPokemonById(Long id) {
-        return webClient.get()
-                .uri("/pokemon/{id}", id)
-                .retrieve()
-                .bodyToMono(Pokemon.class);
+        return pokemonByIdCache.get(id,
+                key -> snapshotService.findById(SnapshotService.POKEMON, key, Pokemon.class)
+                        .doOnNext(pokemon -> pokemonByNameCache.put(pokemon.getName(), pokemon))
+                        .switchIfEmpty(Mono.defer(() -> fetchPokemonById(key))),
+                this::fetchPokemonById);
+    }
+
+    // The fetch* methods go straight to the upstream and write the result back
+    // to the snapshot; the caches use them as loaders after a snapshot miss and
+    // as refreshers, so stale entries are reloaded from the upstream
+    private Mono<Pokemon> fetchPokemonByName(String name) {
+        return rememberMissing("pokemon:" + name, "Pokémon não encontrado: " + name,
+                webClient.get()
+                        .uri("/pokemon/{name}", name)
+                        .retrieve()
+                        .bodyToMono(Pokemon.class)
+                        .doOnNext(pokemon -> {
+                            snapshotService.saveInBackground(
+                                    SnapshotService.POKEMON, pokemon.getId(), pokemon.getName(), pokemon);
+                            pokemonByIdCache.put(pokemon.getId(), pokemon);
+                        }));
+    }
+
+    private Mono<Pokemon> fetchPokemonById(Long id) {
+        return rememberMissing("pokemon-id:" + id, "Pokémon não encontrado: " + id,
+                webClient.get()
+                        .uri("/pokemon/{id}", id)
+                        .retrieve()
+                        .bodyToMono(Pokemon.class)
+                        .doOnNext(pokemon -> {
+                            snapshotService.saveInBackground(
+                                    SnapshotService.POKEMON, pokemon.getId(), pokemon.getName(), pokemon);
+                            pokemonByNameCache.put(pokemon.getName(), pokemon);
+                        }));
+    }
+
+    // Upstream 404s are remembered for a short while (cache.notFound.ttl), so
+    // repeated lookups of a missing key fail without another round-trip
+    private <T> Mono<T> rememberMissing(String missingKey, String message, Mono<T> lookup) {
+        if (notFoundCache.getIfPresent(missingKey) != null) {
+            return Mono.error(new ResourceNotFoundException(message));
+        }
+        return lookup.onErrorMap(WebClientResponseException.NotFound.class, e -> {
+            notFoundCache.put(missingKey, Boolean.TRUE);
+            return new ResourceNotFoundException(message, e);
+        });
     }
 
     public Flux<Pokemon> getAllPokemons(int limit, int offset) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/pokemon")
-                        .queryParam("limit", limit)
-                        .queryParam("offset", offset)
-                        .build())
-                .retrieve()
-                .bodyToMono(PokemonResponse.class)
-                .flatMapMany(response -> Flux.fromIterable(response.getResults()))
-                .flatMap(result -> getPokemonByName(result.getName()));
+        return getPokemonList(limit, offset)
+                .flatMapMany(response -> hydrate("pokemon?limit=" + limit + "&offset=" + offset,
+                        response.getResults().stream().map(PokemonResult::getName).collect(Collectors.toList())));
     }
 
     public Mono<PokemonResponse> getPokemonList(int limit, int offset) {
+        return pokemonListCache.get(limit + ":" + offset,
+                key -> snapshotService.findPage(SnapshotService.POKEMON, limit, offset)
+                        .switchIfEmpty(Mono.defer(() -> fetchPage(SnapshotService.POKEMON, limit, offset))),
+                key -> fetchPage(SnapshotService.POKEMON, limit, offset));
+    }
+
+    // Pages also refresh the snapshot's copy of the upstream list
+    private Mono<PokemonResponse> fetchPage(String resource, int limit, int offset) {
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder
-                        .path("/pokemon")
+                        .path("/" + resource)
                         .queryParam("limit", limit)
                         .queryParam("offset", offset)
                         .build())
                 .retrieve()
-                .bodyToMono(PokemonResponse.class);
+                .bodyToMono(PokemonResponse.class)
+                .doOnNext(page -> snapshotService.saveIndexInBackground(resource, page.getResults()));
     }
 
     public Mono<PokemonSpecies> getPokemonSpeciesByName(String name) {
-        return webClient.get()
-                .uri("/pokemon-species/{name}", name)
-                .retrieve()
-                .bodyToMono(PokemonSpecies.class);
+        return speciesCache.get(name,
+                key -> snapshotService.findByName(SnapshotService.SPECIES, key, PokemonSpecies.class)
+                        .switchIfEmpty(Mono.defer(() -> fetchSpecies("species:" + key, key))),
+                key -> fetchSpecies("species:" + key, key));
     }
 
     public Mono<PokemonSpecies> getPokemonSpeciesById(Long id) {
-        return webClient.get()
-                .uri("/pokemon-species/{id}", id)
-                .retrieve()
-                .bodyToMono(PokemonSpecies.class);
+        return speciesCache.get(String.valueOf(id),
+                key -> snapshotService.findById(SnapshotService.SPECIES, id, PokemonSpecies.class)
+                        .switchIfEmpty(Mono.defer(() -> fetchSpecies("species-id:" + id, id))),
+                key -> fetchSpecies("species-id:" + id, id));
+    }
+
+    private Mono<PokemonSpecies> fetchSpecies(String missingKey, Object nameOrId) {
+        return rememberMissing(missingKey, "Espécie não encontrada: " + nameOrId,
+                webClient.get()
+                        .uri("/pokemon-species/{key}", nameOrId)
+                        .retrieve()
+                        .bodyToMono(PokemonSpecies.class)
+                        .doOnNext(species -> snapshotService.saveInBackground(
+                                SnapshotService.SPECIES, species.getId(), species.getName(), species)));
+    }
+
+    public Mono<PokemonResponse> getPokemonSpeciesList(int limit, int offset) {
+        return speciesListCache.get(limit + ":" + offset,
+                key -> snapshotService.findPage(SnapshotService.SPECIES, limit, offset)
+                        .switchIfEmpty(Mono.defer(() -> fetchPage(SnapshotService.SPECIES, limit, offset))),
+                key -> fetchPage(SnapshotService.SPECIES, limit, offset));
+    }
+
+    // Species ids are contiguous from 1, and each default Pokémon form shares its species id
+    public Mono<Integer> getSpeciesCount() {
+        return getPokemonSpeciesList(1, 0).map(PokemonResponse::getCount);
     }
 
     public Mono<EvolutionChain> getEvolutionChainById(Long id) {
-        return webClient.get()
-                .uri("/evolution-chain/{id}", id)
-                .retrieve()
-                .bodyToMono(EvolutionChain.class);
+        return evolutionChainCache.get(String.valueOf(id),
+                key -> snapshotService.findById(SnapshotService.EVOLUTION_CHAIN, id, EvolutionChain.class)
+                        .switchIfEmpty(Mono.defer(() -> fetchEvolutionChain("/evolution-chain/" + id))),
+                key -> fetchEvolutionChain("/evolution-chain/" + id));
+    }
+
+    public Mono<PokemonResponse> getEvolutionChainList(int limit, int offset) {
+        return evolutionChainListCache.get(limit + ":" + offset,
+                key -> snapshotService.findPage(SnapshotService.EVOLUTION_CHAIN, limit, offset)
+                        .switchIfEmpty(Mono.defer(() -> fetchPage(SnapshotService.EVOLUTION_CHAIN, limit, offset))),
+                key -> fetchPage(SnapshotService.EVOLUTION_CHAIN, limit, offset));
     }
 
     public Mono<EvolutionChain> getEvolutionChainByUrl(String url) {
+        // Share cache entries with getEvolutionChainById when the URL carries the chain id
+        Long chainId = PokeApiUrls.extractId(url);
+        String cacheKey = chainId != null ? String.valueOf(chainId) : url;
+        Mono<EvolutionChain> fromSnapshot = chainId != null
+                ? snapshotService.findById(SnapshotService.EVOLUTION_CHAIN, chainId, EvolutionChain.class)
+                : Mono.empty();
+        return evolutionChainCache.get(cacheKey,
+                key -> fromSnapshot.switchIfEmpty(Mono.defer(() -> fetchEvolutionChain(url))),
+                key -> fetchEvolutionChain(url));
+    }
+
+    private Mono<EvolutionChain> fetchEvolutionChain(String uri) {
         return webClient.get()
-                .uri(url)
+                .uri(uri)
                 .retrieve()
-                .bodyToMono(EvolutionChain.class);
+                .bodyToMono(EvolutionChain.class)
+                .doOnNext(chain -> snapshotService.saveInBackground(
+                        SnapshotService.EVOLUTION_CHAIN, chain.getId(), null, chain));
     }
 
     public Mono<PokemonType> getTypeByName(String name) {
-        return webClient.get()
-                .uri("/type/{name}", name)
-                .retrieve()
-                .bodyToMono(PokemonType.class);
+        return typeCache.get(name,
+                key -> snapshotService.findByName(SnapshotService.TYPE, key, PokemonType.class)
+                        .switchIfEmpty(Mono.defer(() -> fetchType(key))),
+                this::fetchType);
+    }
+
+    private Mono<PokemonType> fetchType(String name) {
+        return rememberMissing("type:" + name, "Tipo não encontrado: " + name,
+                webClient.get()
+                        .uri("/type/{name}", name)
+                        .retrieve()
+                        .bodyToMono(PokemonType.class)
+                        .doOnNext(type -> snapshotService.saveInBackground(
+                                SnapshotService.TYPE, type.getId(), type.getName(), type)));
     }
 
     public Flux<Pokemon> getPokemonsByType(String typeName) {
         return getTypeByName(typeName)
-                .flatMapMany(type -> Flux.fromIterable(type.getPokemon()))
-                .flatMap(typePokemon -> getPokemonByName(typePokemon.getPokemon().getName()));
+                .flatMapMany(type -> hydrate("type/" + typeName,
+                        type.getPokemon().stream().map(typePokemon -> typePokemon.getPokemon().getName())
+                                .collect(Collectors.toList())));
+    }
+
+    // Resolves ids and names in request order. Cache hits are answered without
+    // scheduling a fetch; misses share the fan-out concurrency limit and a
+    // failure only affects its own entry. Missing or blank keys reject the
+    // whole batch up front.
+    public Flux<PokemonBatchResult> getPokemonBatch(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Flux.error(new IllegalArgumentException("Informe ao menos um id ou nome de Pokémon"));
+        }
+        if (keys.size() > batchMaxSize) {
+            return Flux.error(new IllegalArgumentException(
+                    "Um lote pode conter no máximo " + batchMaxSize + " Pokémon, recebidos " + keys.size()));
+        }
+        for (int position = 0; position < keys.size(); position++) {
+            if (keys.get(position) == null || keys.get(position).isBlank()) {
+                return Flux.error(new IllegalArgumentException(
+                        "Id ou nome de Pokémon vazio na posição " + position));
+            }
+        }
+
+        return Flux.fromIterable(keys)
+                .flatMapSequential(key -> {
+                    String normalized = key.trim().toLowerCase();
+                    Pokemon cached = findCached(normalized);
+                    if (cached != null) {
+                        return Mono.just(PokemonBatchResult.builder().key(key).pokemon(cached).build());
+                    }
+                    return fetchByKey(normalized)
+                            .timeout(fanOutItemTimeout)
+                            .map(pokemon -> PokemonBatchResult.builder().key(key).pokemon(pokemon).build())
+                            .switchIfEmpty(Mono.fromSupplier(() -> batchError(key, "Pokémon não encontrado: " + key)))
+                            .onErrorResume(e -> Mono.just(batchError(key, describeError(key, e))));
+                }, fanOutConcurrency);
+    }
+
+    private Pokemon findCached(String normalized) {
+        Long id = parseId(normalized);
+        return id != null ? pokemonByIdCache.getIfPresent(id) : pokemonByNameCache.getIfPresent(normalized);
+    }
+
+    private Mono<Pokemon> fetchByKey(String normalized) {
+        Long id = parseId(normalized);
+        return id != null ? getPokemonById(id) : getPokemonByName(normalized);
+    }
+
+    private Long parseId(String key) {
+        if (key.isEmpty() || !key.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private PokemonBatchResult batchError(String key, String error) {
+        return PokemonBatchResult.builder().key(key).error(error).build();
+    }
+
+    // Same wording as the single-item endpoints
+    private String describeError(String key, Throwable e) {
+        if (e instanceof ResourceNotFoundException || e instanceof WebClientResponseException.NotFound) {
+            return "Pokémon não encontrado: " + key;
+        }
+        if (e instanceof TimeoutException) {
+            return "Tempo esgotado ao buscar o Pokémon: " + key;
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    // Fetches list entries with bounded concurrency while keeping list order, so
+    // pages are stable. An entry that fails or exceeds the per-item timeout is
+    // skipped and reported once the fan-out completes.
+    private Flux<Pokemon> hydrate(String source, List<String> names) {
+        AtomicInteger fetched = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        long startedAt = System.nanoTime();
+        return Flux.fromIterable(names)
+                .flatMapSequential(name -> getPokemonByName(name)
+                        .timeout(fanOutItemTimeout)
+                        .doOnNext(pokemon -> fetched.incrementAndGet())
+                        .onErrorResume(e -> {
+                            skipped.incrementAndGet();
+                            log.debug("Skipping {} from {}: {}", name, source, e.toString());
+                            return Mono.empty();
+                        }), fanOutConcurrency)
+                .doOnComplete(() -> {
+                    long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+                    if (skipped.get() > 0) {
+                        log.warn("Fan-out {}: {} of {} Pokémon fetched, {} skipped in {} ms", source, fetched.get(),
+                                names.size(), skipped.get(), elapsedMillis);
+                    } else {
+                        log.debug("Fan-out {}: {} Pokémon fetched in {} ms", source, fetched.get(), elapsedMillis);
+                    }
+                });
     }
-}
\ No newline at end of file
+}
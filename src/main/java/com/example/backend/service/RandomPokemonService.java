@@ -0,0 +1,130 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.ReactiveCache;
+import com.example.backend.cache.ReactiveCacheManager;
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonSpecies;
+import com.example.backend.util.PokeApiUrls;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Picks a random Pokémon by choosing an id first and fetching only that one.
+// The id range comes from the cached species count; type and generation
+// filters narrow it with cached membership bitsets, and the legendary filter
+// (only known after the species lookup) uses bounded rejection sampling.
+@Service
+public class RandomPokemonService {
+
+    private final PokemonService pokemonService;
+    private final GenerationService generationService;
+    private final TypeMembershipService typeMembershipService;
+    private final ReactiveCache<String, BitSet> generationMembersCache;
+
+    @Value("${pokemon.random.legendary-max-attempts:20}")
+    private int legendaryMaxAttempts;
+
+    @Autowired
+    public RandomPokemonService(PokemonService pokemonService, GenerationService generationService,
+            TypeMembershipService typeMembershipService, ReactiveCacheManager cacheManager) {
+        this.pokemonService = pokemonService;
+        this.generationService = generationService;
+        this.typeMembershipService = typeMembershipService;
+        this.generationMembersCache = cacheManager.getCache("generationMembers");
+    }
+
+    public Mono<Pokemon> randomPokemon() {
+        return randomPokemon(null, null, null, null);
+    }
+
+    // Empty when no Pokémon matches the filters
+    public Mono<Pokemon> randomPokemon(String type, String generation, Boolean legendary, Integer maxId) {
+        return candidates(type, generation, maxId).flatMap(candidates -> {
+            if (candidates.isEmpty()) {
+                return Mono.empty();
+            }
+            if (legendary == null) {
+                return pokemonService.getPokemonById(pick(candidates));
+            }
+
+            // Draw without replacement until the species matches or the attempts run out
+            BitSet remaining = (BitSet) candidates.clone();
+            return Flux.range(0, legendaryMaxAttempts)
+                    .takeWhile(attempt -> !remaining.isEmpty())
+                    .concatMap(attempt -> {
+                        long id = pick(remaining);
+                        remaining.clear((int) id);
+                        return pokemonService.getPokemonSpeciesById(id)
+                                .filter(species -> isLegendary(species) == legendary)
+                                .map(PokemonSpecies::getId);
+                    })
+                    .next()
+                    .flatMap(pokemonService::getPokemonById);
+        });
+    }
+
+    private Mono<BitSet> candidates(String type, String generation, Integer maxId) {
+        Mono<BitSet> range = pokemonService.getSpeciesCount().map(count -> {
+            int upper = maxId != null && maxId > 0 ? Math.min(maxId, count) : count;
+            BitSet ids = new BitSet(upper + 1);
+            ids.set(1, upper + 1);
+            return ids;
+        });
+
+        Mono<BitSet> filtered = range;
+        if (type != null && !type.isBlank()) {
+            filtered = filtered.zipWith(typeMembershipService.membersOf(type), (ids, members) -> {
+                ids.and(members);
+                return ids;
+            });
+        }
+        if (generation != null && !generation.isBlank()) {
+            filtered = filtered.zipWith(generationMembers(generation), (ids, members) -> {
+                ids.and(members);
+                return ids;
+            });
+        }
+        return filtered;
+    }
+
+    // Cached bitsets are shared, callers must not mutate the returned instance
+    private Mono<BitSet> generationMembers(String generation) {
+        return generationMembersCache.get(generation.toLowerCase(), key -> generationService
+                .getGenerationByName(key)
+                .map(body -> {
+                    BitSet members = new BitSet();
+                    if (body instanceof Map<?, ?> map && map.get("pokemon_species") instanceof List<?> species) {
+                        for (Object entry : species) {
+                            if (entry instanceof Map<?, ?> resource && resource.get("url") instanceof String url) {
+                                Long id = PokeApiUrls.extractId(url);
+                                if (id != null) {
+                                    members.set(id.intValue());
+                                }
+                            }
+                        }
+                    }
+                    return members;
+                }));
+    }
+
+    // Uniform over the set bits
+    private long pick(BitSet ids) {
+        int target = ThreadLocalRandom.current().nextInt(ids.cardinality());
+        int id = ids.nextSetBit(0);
+        for (int i = 0; i < target; i++) {
+            id = ids.nextSetBit(id + 1);
+        }
+        return id;
+    }
+
+    private boolean isLegendary(PokemonSpecies species) {
+        return Boolean.TRUE.equals(species.getIsLegendary()) || Boolean.TRUE.equals(species.getIsMythical());
+    }
+}
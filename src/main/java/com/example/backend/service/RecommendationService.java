@@ -1,31 +1,54 @@
 package com.example.backend.service;
 
+import com.example.backend.index.PokemonIndex;
+import com.example.backend.index.SimilarityEngine;
+import com.example.backend.index.TopK;
 import com.example.backend.models.pokemon.Pokemon;
 import com.example.backend.models.recommendation.RecommendationRequest;
 import com.example.backend.models.recommendation.RecommendationResult;
 import com.example.backend.models.recommendation.SimilarityScore;
-import com.example.backend.models.ai.AIRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
 public class RecommendationService {
 
+    private static final int HYDRATION_CONCURRENCY = 8;
+
     private final PokemonService pokemonService;
-    private final AIService aiService;
+    private final PokemonIndexService indexService;
+    private final ExplanationCacheService explanationCacheService;
+    private final ExplanationBatcher explanationBatcher;
+    private final AtomicReference<SimilarityEngine> similarityEngine = new AtomicReference<>();
+
+    @Value("${recommendation.max-limit:50}")
+    private int maxLimit;
 
     @Autowired
-    public RecommendationService(PokemonService pokemonService, AIService aiService) {
+    public RecommendationService(PokemonService pokemonService, PokemonIndexService indexService,
+            ExplanationCacheService explanationCacheService,
+            ExplanationBatcher explanationBatcher) {
         this.pokemonService = pokemonService;
-        this.aiService = aiService;
+        this.indexService = indexService;
+        this.explanationCacheService = explanationCacheService;
+        this.explanationBatcher = explanationBatcher;
     }
 
     public Mono<RecommendationResult> findSimilarPokemon(RecommendationRequest request) {
+        // Default limit if not specified; the ranking heap is sized by it
+        int limit = request.getLimit() != null ? request.getLimit() : 5;
+        if (limit <= 0 || limit > maxLimit) {
+            return Mono.error(new IllegalArgumentException(
+                    "O limite deve estar entre 1 e " + maxLimit + ", recebido " + limit));
+        }
+
         // Determine which Pokemon to use as the base
         Mono<Pokemon> basePokemonMono;
         if (request.getPokemonId() != null) {
@@ -36,9 +59,6 @@ public class RecommendationService {
             return Mono.error(new IllegalArgumentException("Either pokemonId or pokemonName must be provided"));
         }
 
-        // Default limit if not specified
-        int limit = request.getLimit() != null ? request.getLimit() : 5;
-
         return basePokemonMono.flatMap(basePokemon -> {
             // Extract types from the base Pokemon
             List<String> types = basePokemon.getTypes().stream()
@@ -50,6 +70,12 @@ public class RecommendationService {
                     ? request.getPreferredTypes()
                     : Collections.singletonList(types.get(0));
 
+            // Rank the whole dex in memory once the index is available
+            if (indexService.isReady()) {
+                return rankWithIndex(basePokemon, searchTypes, request.getSimilarityStrategy(), limit);
+            }
+            indexService.refreshInBackground();
+
             // Get Pokemon with the specified types
             return Flux.fromIterable(searchTypes)
                     .flatMap(pokemonService::getPokemonsByType)
@@ -57,113 +83,94 @@ public class RecommendationService {
                     .filter(p -> !p.getId().equals(basePokemon.getId())) // Exclude the base Pokemon
                     .take(50) // Limit candidates for performance
                     .collectList()
-                    .flatMap(candidates -> {
-                        // Calculate similarity scores
-                        List<SimilarityScore> scoredCandidates = calculateSimilarityScores(
-                                basePokemon, candidates, request.getSimilarityStrategy());
-
-                        // Sort by score in descending order and take the top N
-                        List<Pokemon> similarPokemon = scoredCandidates.stream()
-                                .sorted(Comparator.comparing(SimilarityScore::getScore).reversed())
-                                .limit(limit)
-                                .map(SimilarityScore::getPokemon)
-                                .collect(Collectors.toList());
-
-                        // Calculate average similarity score
-                        double avgScore = scoredCandidates.stream()
-                                .limit(limit)
-                                .mapToDouble(SimilarityScore::getScore)
-                                .average()
-                                .orElse(0.0);
-
-                        // Generate match reasons
-                        List<String> matchReasons = generateMatchReasons(scoredCandidates.stream()
-                                .limit(limit)
-                                .collect(Collectors.toList()));
-
-                        // Generate explanations using AI
-                        return generateExplanations(basePokemon, similarPokemon)
-                                .map(explanations -> {
-                                    RecommendationResult result = new RecommendationResult();
-                                    result.setBasePokemon(basePokemon);
-                                    result.setSimilarPokemon(similarPokemon);
-                                    result.setExplanations(explanations);
-                                    result.setMatchReasons(matchReasons);
-                                    result.setAverageSimilarityScore(avgScore);
-                                    return result;
-                                });
-                    });
+                    .flatMap(candidates -> buildResult(basePokemon,
+                            rankCandidates(basePokemon, candidates, request.getSimilarityStrategy(), limit)));
         });
     }
 
-    private List<SimilarityScore> calculateSimilarityScores(
-            Pokemon basePokemon,
-            List<Pokemon> candidates,
-            String strategy) {
-
-        List<SimilarityScore> scores = new ArrayList<>();
-
-        for (Pokemon candidate : candidates) {
-            double score = 0.0;
-            Map<String, Double> scoreBreakdown = new HashMap<>();
-
-            // Type similarity (using Jaccard similarity)
-            Set<String> baseTypes = basePokemon.getTypes().stream()
-                    .map(type -> type.getType().getName())
-                    .collect(Collectors.toSet());
+    private Mono<RecommendationResult> rankWithIndex(Pokemon basePokemon, List<String> searchTypes, String strategy,
+            int limit) {
+        SimilarityEngine engine = currentSimilarityEngine();
+        TopK top = engine.rank(basePokemon, PokemonIndex.typeMaskOf(searchTypes),
+                SimilarityEngine.weightsFor(strategy), limit)
+                .sortDescending();
+
+        return Flux.range(0, top.size())
+                .flatMapSequential(position -> {
+                    int row = top.rowAt(position);
+                    return pokemonService.getPokemonById(engine.idAt(row))
+                            .map(pokemon -> SimilarityScore.builder()
+                                    .pokemon(pokemon)
+                                    .score(top.scoreAt(position))
+                                    .scoreBreakdown(toScoreBreakdown(engine.breakdown(basePokemon, row)))
+                                    .build());
+                }, HYDRATION_CONCURRENCY)
+                .collectList()
+                .flatMap(ranked -> buildResult(basePokemon, ranked));
+    }
 
-            Set<String> candidateTypes = candidate.getTypes().stream()
-                    .map(type -> type.getType().getName())
-                    .collect(Collectors.toSet());
-
-            Set<String> intersection = new HashSet<>(baseTypes);
-            intersection.retainAll(candidateTypes);
-
-            Set<String> union = new HashSet<>(baseTypes);
-            union.addAll(candidateTypes);
-
-            double typeSimilarity = union.isEmpty() ? 0 : (double) intersection.size() / union.size();
-            scoreBreakdown.put("typeSimilarity", typeSimilarity);
-
-            // Height similarity (normalized)
-            double heightDiff = Math.abs(basePokemon.getHeight() - candidate.getHeight()) /
-                    (double) Math.max(basePokemon.getHeight(), candidate.getHeight());
-            double heightSimilarity = 1.0 - heightDiff;
-            scoreBreakdown.put("heightSimilarity", heightSimilarity);
-
-            // Weight similarity (normalized)
-            double weightDiff = Math.abs(basePokemon.getWeight() - candidate.getWeight()) /
-                    (double) Math.max(basePokemon.getWeight(), candidate.getWeight());
-            double weightSimilarity = 1.0 - weightDiff;
-            scoreBreakdown.put("weightSimilarity", weightSimilarity);
-
-            // Base experience similarity (normalized)
-            double expDiff = Math.abs(basePokemon.getBaseExperience() - candidate.getBaseExperience()) /
-                    (double) Math.max(basePokemon.getBaseExperience(), candidate.getBaseExperience());
-            double expSimilarity = 1.0 - expDiff;
-            scoreBreakdown.put("baseExpSimilarity", expSimilarity);
-
-            // Apply weights based on strategy
-            if ("type".equals(strategy)) {
-                // Type-focused strategy
-                score = typeSimilarity * 0.7 + heightSimilarity * 0.1 + weightSimilarity * 0.1 + expSimilarity * 0.1;
-            } else if ("stats".equals(strategy)) {
-                // Stats-focused strategy
-                score = typeSimilarity * 0.2 + heightSimilarity * 0.2 + weightSimilarity * 0.2 + expSimilarity * 0.4;
-            } else {
-                // Balanced strategy (default)
-                score = typeSimilarity * 0.4 + heightSimilarity * 0.2 + weightSimilarity * 0.2 + expSimilarity * 0.2;
-            }
+    // Bounded heap over the candidate positions; the breakdown is only built for the winners
+    private List<SimilarityScore> rankCandidates(Pokemon basePokemon, List<Pokemon> candidates, String strategy,
+            int limit) {
+        double[] strategyWeights = SimilarityEngine.weightsFor(strategy);
+        TopK top = new TopK(Math.min(limit, candidates.size()));
+        for (int position = 0; position < candidates.size(); position++) {
+            top.offer(position, SimilarityEngine.score(basePokemon, candidates.get(position), strategyWeights));
+        }
+        top.sortDescending();
+
+        List<SimilarityScore> ranked = new ArrayList<>(top.size());
+        for (int position = 0; position < top.size(); position++) {
+            Pokemon candidate = candidates.get(top.rowAt(position));
+            ranked.add(SimilarityScore.builder()
+                    .pokemon(candidate)
+                    .score(top.scoreAt(position))
+                    .scoreBreakdown(toScoreBreakdown(SimilarityEngine.breakdown(basePokemon, candidate)))
+                    .build());
+        }
+        return ranked;
+    }
 
-            SimilarityScore similarityScore = new SimilarityScore();
-            similarityScore.setPokemon(candidate);
-            similarityScore.setScore(score);
-            similarityScore.setScoreBreakdown(scoreBreakdown);
+    // Similar Pokémon, average score and match reasons all come from the same ranked list
+    private Mono<RecommendationResult> buildResult(Pokemon basePokemon, List<SimilarityScore> ranked) {
+        List<Pokemon> similarPokemon = ranked.stream()
+                .map(SimilarityScore::getPokemon)
+                .collect(Collectors.toList());
+        double avgScore = ranked.stream()
+                .mapToDouble(SimilarityScore::getScore)
+                .average()
+                .orElse(0.0);
+        List<String> matchReasons = generateMatchReasons(ranked);
+
+        return generateExplanations(basePokemon, similarPokemon)
+                .map(explanations -> {
+                    RecommendationResult result = new RecommendationResult();
+                    result.setBasePokemon(basePokemon);
+                    result.setSimilarPokemon(similarPokemon);
+                    result.setExplanations(explanations);
+                    result.setMatchReasons(matchReasons);
+                    result.setAverageSimilarityScore(avgScore);
+                    return result;
+                });
+    }
 
-            scores.add(similarityScore);
+    private SimilarityEngine currentSimilarityEngine() {
+        PokemonIndex index = indexService.current();
+        SimilarityEngine engine = similarityEngine.get();
+        if (engine == null || engine.getIndex() != index) {
+            engine = SimilarityEngine.of(index);
+            similarityEngine.set(engine);
         }
+        return engine;
+    }
 
-        return scores;
+    private Map<String, Double> toScoreBreakdown(double[] features) {
+        Map<String, Double> scoreBreakdown = new HashMap<>();
+        scoreBreakdown.put("typeSimilarity", features[SimilarityEngine.TYPE]);
+        scoreBreakdown.put("heightSimilarity", features[SimilarityEngine.HEIGHT]);
+        scoreBreakdown.put("weightSimilarity", features[SimilarityEngine.WEIGHT]);
+        scoreBreakdown.put("baseExpSimilarity", features[SimilarityEngine.BASE_EXPERIENCE]);
+        return scoreBreakdown;
     }
 
     private List<String> generateMatchReasons(List<SimilarityScore> topMatches) {
@@ -211,67 +218,38 @@ public class RecommendationService {
         return reasons;
     }
 
+    // Reuses stored explanations per (base, candidate) pair and only asks the
+    // model about the pairs it has not explained yet, batched with other callers
     private Mono<Map<Long, String>> generateExplanations(Pokemon basePokemon, List<Pokemon> similarPokemon) {
-        // Build a prompt for the AI to generate explanations
-        StringBuilder promptBuilder = new StringBuilder();
-        promptBuilder.append(
-                "Generate brief explanations (1-2 sentences each) for why the following Pokémon are similar to ")
-                .append(basePokemon.getName())
-                .append(" (ID: ").append(basePokemon.getId()).append("):\n\n");
-
-        for (Pokemon pokemon : similarPokemon) {
-            promptBuilder.append("- ").append(pokemon.getName())
-                    .append(" (ID: ").append(pokemon.getId()).append("):\n");
-
-            // Add some context about the Pokémon
-            promptBuilder.append("  Types: ");
-            pokemon.getTypes().forEach(type -> promptBuilder.append(type.getType().getName()).append(", "));
-            promptBuilder.append("\n");
-
-            promptBuilder.append("  Height: ").append(pokemon.getHeight() / 10.0).append("m")
-                    .append(", Weight: ").append(pokemon.getWeight() / 10.0).append("kg")
-                    .append(", Base Experience: ").append(pokemon.getBaseExperience())
-                    .append("\n\n");
-        }
-
-        promptBuilder.append("Format your response as:\n");
-        promptBuilder.append("ID1: Explanation for first Pokémon\n");
-        promptBuilder.append("ID2: Explanation for second Pokémon\n");
-        promptBuilder.append("etc.\n");
-
-        // Call AI service to generate explanations
-        AIRequest aiRequest = new AIRequest();
-        aiRequest.setPrompt(promptBuilder.toString());
-        aiRequest.setContentType("explanation");
-        aiRequest.setSubject("pokemon_similarity");
-        aiRequest.setMaxLength(1000);
-
-        return aiService.generateContent(aiRequest)
-                .map(response -> {
-                    // Parse the response into a map of ID -> explanation
-                    Map<Long, String> explanations = new HashMap<>();
-                    String[] lines = response.split("\n");
-
-                    for (String line : lines) {
-                        line = line.trim();
-                        if (line.isEmpty())
-                            continue;
-
-                        // Parse ID: Explanation format
-                        int colonIndex = line.indexOf(':');
-                        if (colonIndex > 0) {
-                            try {
-                                Long id = Long.parseLong(line.substring(0, colonIndex).trim());
-                                String explanation = line.substring(colonIndex + 1).trim();
-                                explanations.put(id, explanation);
-                            } catch (NumberFormatException e) {
-                                // Skip lines that don't match expected format
-                                System.err.println("Error parsing explanation line: " + line);
-                            }
-                        }
+        List<Long> candidateIds = similarPokemon.stream()
+                .map(Pokemon::getId)
+                .collect(Collectors.toList());
+
+        return explanationCacheService.findExplanations(basePokemon.getId(), candidateIds)
+                .flatMap(cached -> {
+                    List<Pokemon> missing = similarPokemon.stream()
+                            .filter(pokemon -> !cached.containsKey(pokemon.getId()))
+                            .collect(Collectors.toList());
+                    if (missing.isEmpty()) {
+                        return Mono.just(cached);
                     }
 
-                    return explanations;
+                    return explanationBatcher.explain(basePokemon, missing)
+                            .map(generated -> {
+                                // Only keep answers for the Pokémon we asked about
+                                Map<Long, String> fresh = new HashMap<>();
+                                missing.forEach(pokemon -> {
+                                    String explanation = generated.get(pokemon.getId());
+                                    if (explanation != null) {
+                                        fresh.put(pokemon.getId(), explanation);
+                                    }
+                                });
+                                explanationCacheService.storeInBackground(basePokemon.getId(), fresh);
+
+                                Map<Long, String> explanations = new HashMap<>(cached);
+                                explanations.putAll(fresh);
+                                return explanations;
+                            });
                 });
     }
-}
\ No newline at end of file
+}
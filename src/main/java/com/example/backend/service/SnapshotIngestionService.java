@@ -0,0 +1,187 @@
+package com.example.backend.service;
+
+import com.example.backend.models.evolution.EvolutionChain;
+import com.example.backend.models.move.Move;
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonResponse;
+import com.example.backend.models.pokemon.PokemonResult;
+import com.example.backend.models.pokemon.PokemonSpecies;
+import com.example.backend.models.pokemon.PokemonType;
+import com.example.backend.util.PokeApiUrls;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pulls the whole PokeAPI dataset into the local snapshot. The upstream list of
+// each resource is stored first, so list reads can use the snapshot right away;
+// entries are then fetched with a few retries. Entries already stored are
+// skipped, so an interrupted run (or one that left failed entries behind)
+// resumes where it stopped, and a resource is only marked completed once every
+// listed entry is stored.
+@Service
+public class SnapshotIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotIngestionService.class);
+    private static final int PROGRESS_INTERVAL = 50;
+
+    private static final Map<String, Class<?>> RESOURCES = new LinkedHashMap<>();
+
+    static {
+        RESOURCES.put(SnapshotService.TYPE, PokemonType.class);
+        RESOURCES.put(SnapshotService.GENERATION, Object.class);
+        RESOURCES.put(SnapshotService.POKEMON, Pokemon.class);
+        RESOURCES.put(SnapshotService.SPECIES, PokemonSpecies.class);
+        RESOURCES.put(SnapshotService.EVOLUTION_CHAIN, EvolutionChain.class);
+        RESOURCES.put(SnapshotService.MOVE, Move.class);
+    }
+
+    private final WebClient webClient;
+    private final SnapshotService snapshotService;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${snapshot.ingest-on-startup:false}")
+    private boolean ingestOnStartup;
+
+    @Value("${snapshot.ingest-concurrency:8}")
+    private int concurrency;
+
+    @Value("${snapshot.ingest-retries:2}")
+    private int retries;
+
+    @Value("${snapshot.ingest-retry-backoff:500ms}")
+    private Duration retryBackoff;
+
+    public SnapshotIngestionService(@Qualifier("pokeApiWebClient") WebClient webClient,
+            SnapshotService snapshotService) {
+        this.webClient = webClient;
+        this.snapshotService = snapshotService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (ingestOnStartup) {
+            tryStart();
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    // Claims the run before returning, so of several concurrent callers exactly
+    // one gets true; the run itself continues in the background
+    public boolean tryStart() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        run().subscribe(null, e -> log.error("Snapshot ingestion failed", e));
+        return true;
+    }
+
+    // The running flag is only taken on subscription, and released when the run
+    // ends, fails or is cancelled
+    public Mono<Void> ingestAll() {
+        return Mono.defer(() -> running.compareAndSet(false, true) ? run() : Mono.<Void>empty());
+    }
+
+    private Mono<Void> run() {
+        return Flux.fromIterable(RESOURCES.entrySet())
+                .concatMap(entry -> ingestResource(entry.getKey(), entry.getValue()))
+                .then()
+                // Released before completion is signalled, so a caller can start
+                // the next run as soon as this one is done
+                .doOnTerminate(() -> running.set(false))
+                .doOnCancel(() -> running.set(false));
+    }
+
+    private Mono<Void> ingestResource(String resource, Class<?> type) {
+        return snapshotService.isCompleted(resource)
+                .flatMap(completed -> completed
+                        ? Mono.<Void>empty()
+                        : fetchIndex(resource)
+                                .flatMap(index -> storeIndex(resource, index))
+                                .zipWith(snapshotService.findIngestedIds(resource))
+                                .flatMap(tuple -> ingestMissing(resource, type, tuple.getT1(), tuple.getT2())));
+    }
+
+    // Stores the list of (id, name) pairs, dropping entries without an id
+    private Mono<Map<Long, String>> storeIndex(String resource, PokemonResponse index) {
+        Map<Long, String> namesById = new LinkedHashMap<>();
+        for (PokemonResult result : index.getResults()) {
+            Long id = PokeApiUrls.extractId(result.getUrl());
+            if (id != null) {
+                namesById.put(id, result.getName());
+            }
+        }
+        return snapshotService.saveIndex(resource, namesById).thenReturn(namesById);
+    }
+
+    private Mono<Void> ingestMissing(String resource, Class<?> type, Map<Long, String> namesById,
+            Set<Long> ingestedIds) {
+        int total = namesById.size();
+        int alreadyStored = (int) namesById.keySet().stream().filter(ingestedIds::contains).count();
+        AtomicInteger ingested = new AtomicInteger(alreadyStored);
+        AtomicInteger failed = new AtomicInteger();
+        log.info("Ingesting {}: {} of {} entries already stored", resource, alreadyStored, total);
+
+        return snapshotService.saveProgress(resource, total, alreadyStored, alreadyStored >= total)
+                .thenMany(Flux.fromIterable(namesById.entrySet()))
+                .filter(entry -> !ingestedIds.contains(entry.getKey()))
+                .flatMap(entry -> fetchAndStore(resource, type, entry.getKey(), entry.getValue())
+                        .then(Mono.defer(() -> {
+                            int count = ingested.incrementAndGet();
+                            return count % PROGRESS_INTERVAL == 0
+                                    ? snapshotService.saveProgress(resource, total, count, false)
+                                    : Mono.<Void>empty();
+                        }))
+                        .onErrorResume(e -> {
+                            failed.incrementAndGet();
+                            log.warn("Skipping {} {}: {}", resource, entry.getValue(), e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .then(Mono.defer(() -> {
+                    if (failed.get() > 0) {
+                        log.warn("Ingested {} of {} {} entries; {} failed and will be retried on the next run",
+                                ingested.get(), total, resource, failed.get());
+                    }
+                    return snapshotService.saveProgress(resource, total, ingested.get(), ingested.get() >= total);
+                }));
+    }
+
+    private Mono<PokemonResponse> fetchIndex(String resource) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/" + resource)
+                        .queryParam("limit", 100000)
+                        .queryParam("offset", 0)
+                        .build())
+                .retrieve()
+                .bodyToMono(PokemonResponse.class);
+    }
+
+    private Mono<Void> fetchAndStore(String resource, Class<?> type, long id, String name) {
+        return webClient.get()
+                .uri("/" + resource + "/{id}", id)
+                .retrieve()
+                .bodyToMono(type)
+                .retryWhen(Retry.backoff(retries, retryBackoff)
+                        .filter(e -> !(e instanceof WebClientResponseException.NotFound)))
+                .flatMap(body -> snapshotService.save(resource, id, name, body));
+    }
+}
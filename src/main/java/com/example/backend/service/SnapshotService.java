@@ -0,0 +1,181 @@
+package com.example.backend.service;
+
+import com.example.backend.models.pokemon.PokemonResponse;
+import com.example.backend.models.pokemon.PokemonResult;
+import com.example.backend.models.snapshot.SnapshotProgress;
+import com.example.backend.repository.SnapshotRepository;
+import com.example.backend.util.PokeApiUrls;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Reactive facade over the local H2 snapshot of the PokeAPI dataset. JDBC
+// calls run on the bounded elastic scheduler so callers never block.
+@Service
+public class SnapshotService {
+
+    public static final String POKEMON = "pokemon";
+    public static final String SPECIES = "pokemon-species";
+    public static final String TYPE = "type";
+    public static final String MOVE = "move";
+    public static final String GENERATION = "generation";
+    public static final String EVOLUTION_CHAIN = "evolution-chain";
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private final SnapshotRepository snapshotRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pokeapi.base-url:https://pokeapi.co/api/v2}")
+    private String baseUrl;
+
+    @Autowired
+    public SnapshotService(SnapshotRepository snapshotRepository, ObjectMapper objectMapper) {
+        this.snapshotRepository = snapshotRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> Mono<T> findById(String resource, long id, Class<T> type) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> snapshotRepository.findPayloadById(resource, id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(payload -> deserialize(payload, type));
+    }
+
+    public <T> Mono<T> findByName(String resource, String name, Class<T> type) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> snapshotRepository.findPayloadByName(resource, name))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(payload -> deserialize(payload, type));
+    }
+
+    // Answers list queries from the stored upstream index, once it holds the
+    // whole list; entries that failed to ingest are still listed and are
+    // fetched from upstream when read.
+    public Mono<PokemonResponse> findPage(String resource, int limit, int offset) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> snapshotRepository.findProgress(resource)
+                .filter(progress -> progress.getTotalCount() > 0)
+                .filter(progress -> snapshotRepository.countIndex(resource) >= progress.getTotalCount())
+                .map(progress -> {
+                    List<PokemonResult> results = snapshotRepository.findNamedPage(resource, baseUrl, limit, offset);
+                    PokemonResponse response = new PokemonResponse();
+                    response.setCount(progress.getTotalCount());
+                    response.setResults(results);
+                    return response;
+                }))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(response -> response.map(Mono::just).orElseGet(Mono::empty));
+    }
+
+    public Mono<Void> save(String resource, long id, String name, Object value) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> {
+            try {
+                snapshotRepository.save(resource, id, name, objectMapper.writeValueAsString(value));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Failed to serialize snapshot entry " + resource + "/" + id, e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    // Write-through from the upstream path; failures only cost a future cache miss
+    public void saveInBackground(String resource, Long id, String name, Object value) {
+        if (id == null) {
+            return;
+        }
+        save(resource, id, name, value)
+                .subscribe(null, e -> log.warn("Could not store {}/{} in snapshot: {}", resource, id, e.getMessage()));
+    }
+
+    public Mono<Void> saveIndex(String resource, Map<Long, String> namesById) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> snapshotRepository.saveIndex(resource, namesById))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    // Keeps the stored upstream list current with a page read from upstream
+    public void saveIndexInBackground(String resource, List<PokemonResult> results) {
+        if (!enabled || results == null) {
+            return;
+        }
+        Map<Long, String> namesById = new LinkedHashMap<>();
+        for (PokemonResult result : results) {
+            Long id = PokeApiUrls.extractId(result.getUrl());
+            if (id != null) {
+                namesById.put(id, result.getName());
+            }
+        }
+        if (!namesById.isEmpty()) {
+            saveIndex(resource, namesById)
+                    .subscribe(null, e -> log.warn("Could not store {} index page: {}", resource, e.getMessage()));
+        }
+    }
+
+    // Empty while the snapshot is disabled, so an ingestion run stores nothing
+    public Mono<Set<Long>> findIngestedIds(String resource) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> snapshotRepository.findIds(resource))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Boolean> isCompleted(String resource) {
+        return Mono.fromCallable(() -> snapshotRepository.findProgress(resource)
+                .map(SnapshotProgress::isCompleted)
+                .orElse(false))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<List<SnapshotProgress>> getProgress() {
+        return Mono.fromCallable(snapshotRepository::findAllProgress)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> saveProgress(String resource, int totalCount, int ingestedCount, boolean completed) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> snapshotRepository.saveProgress(resource, totalCount, ingestedCount, completed))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private <T> Mono<T> deserialize(Optional<String> payload, Class<T> type) {
+        if (payload.isEmpty()) {
+            return Mono.empty();
+        }
+        try {
+            return Mono.just(objectMapper.readValue(payload.get(), type));
+        } catch (JsonProcessingException e) {
+            return Mono.error(new RuntimeException("Corrupted snapshot entry for " + type.getSimpleName(), e));
+        }
+    }
+}
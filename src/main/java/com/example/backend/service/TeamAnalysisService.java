@@ -0,0 +1,200 @@
+package com.example.backend.service;
+
+import com.example.backend.index.TypeChart;
+import com.example.backend.models.comparison.TeamAnalysis;
+import com.example.backend.models.comparison.TypeSuggestion;
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonType;
+import com.example.backend.models.type.TypeName;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class TeamAnalysisService {
+
+    public static final int MAX_TEAM_SIZE = 6;
+    private static final int SUGGESTION_COUNT = 5;
+
+    private final PokemonService pokemonService;
+    private final ComparisonService comparisonService;
+
+    @Autowired
+    public TeamAnalysisService(PokemonService pokemonService, ComparisonService comparisonService) {
+        this.pokemonService = pokemonService;
+        this.comparisonService = comparisonService;
+    }
+
+    public Mono<TeamAnalysis> analyzeTeam(List<Long> pokemonIds) {
+        if (pokemonIds == null || pokemonIds.isEmpty() || pokemonIds.size() > MAX_TEAM_SIZE) {
+            return Mono.error(new IllegalArgumentException(
+                    "A team must have between 1 and " + MAX_TEAM_SIZE + " Pokémon"));
+        }
+        return Flux.fromIterable(pokemonIds)
+                .flatMapSequential(pokemonService::getPokemonById)
+                .collectList()
+                .map(team -> analyze(pokemonIds, team, comparisonService.getTypeChart()));
+    }
+
+    private TeamAnalysis analyze(List<Long> pokemonIds, List<Pokemon> team, TypeChart chart) {
+        int count = TypeName.COUNT;
+        int[] weak = new int[count];
+        int[] resist = new int[count];
+        boolean[] covered = new boolean[count];
+
+        for (Pokemon pokemon : team) {
+            int[] types = typeOrdinals(pokemon);
+            if (types[0] < 0) {
+                continue;
+            }
+            double[] defensive = chart.defensiveMultipliers(types[0], types[1]);
+            for (int type = 0; type < count; type++) {
+                if (defensive[type] > 1.0) {
+                    weak[type]++;
+                } else if (defensive[type] < 1.0) {
+                    resist[type]++;
+                }
+                // Coverage assumes same-type attacks
+                if (chart.effectiveness(types[0], type) > 1.0
+                        || (types[1] >= 0 && chart.effectiveness(types[1], type) > 1.0)) {
+                    covered[type] = true;
+                }
+            }
+        }
+
+        Map<String, Integer> weaknessCount = new LinkedHashMap<>();
+        Map<String, Integer> resistanceCount = new LinkedHashMap<>();
+        List<String> sharedWeaknesses = new ArrayList<>();
+        List<String> coverageGaps = new ArrayList<>();
+        boolean[] exposed = new boolean[count];
+        for (int type = 0; type < count; type++) {
+            String name = TypeName.byOrdinal(type).getApiName();
+            weaknessCount.put(name, weak[type]);
+            resistanceCount.put(name, resist[type]);
+            if (weak[type] > resist[type]) {
+                exposed[type] = true;
+                sharedWeaknesses.add(name);
+            }
+            if (!covered[type]) {
+                coverageGaps.add(name);
+            }
+        }
+
+        // Score every single- and dual-type candidate; a plain loop, since the
+        // whole pass takes microseconds
+        double[] scores = new double[TypeChart.COMBINATION_COUNT];
+        for (int combination = 0; combination < TypeChart.COMBINATION_COUNT; combination++) {
+            scores[combination] = scoreCandidate(chart, combination, exposed, covered);
+        }
+
+        return TeamAnalysis.builder()
+                .pokemonIds(pokemonIds)
+                .weaknessCount(weaknessCount)
+                .resistanceCount(resistanceCount)
+                .sharedWeaknesses(sharedWeaknesses)
+                .coverageGaps(coverageGaps)
+                .suggestions(topSuggestions(chart, scores, exposed, covered))
+                .build();
+    }
+
+    private double scoreCandidate(TypeChart chart, int combination, boolean[] exposed, boolean[] covered) {
+        int primary = chart.combinationPrimary(combination);
+        int secondary = chart.combinationSecondary(combination);
+        double[] defensive = chart.defensiveMultipliers(primary, secondary);
+
+        double score = 0.0;
+        for (int type = 0; type < TypeName.COUNT; type++) {
+            if (exposed[type]) {
+                if (defensive[type] == 0.0) {
+                    score += 1.5;
+                } else if (defensive[type] < 1.0) {
+                    score += 1.0;
+                } else if (defensive[type] > 1.0) {
+                    score -= 1.0;
+                }
+            } else if (defensive[type] > 1.0) {
+                score -= 0.25;
+            }
+            if (!covered[type] && (chart.effectiveness(primary, type) > 1.0
+                    || chart.effectiveness(secondary, type) > 1.0)) {
+                score += 1.0;
+            }
+        }
+        return score;
+    }
+
+    private List<TypeSuggestion> topSuggestions(TypeChart chart, double[] scores, boolean[] exposed,
+            boolean[] covered) {
+        List<TypeSuggestion> suggestions = new ArrayList<>(SUGGESTION_COUNT);
+        boolean[] taken = new boolean[scores.length];
+        for (int rank = 0; rank < SUGGESTION_COUNT; rank++) {
+            int best = -1;
+            for (int combination = 0; combination < scores.length; combination++) {
+                if (!taken[combination] && (best < 0 || scores[combination] > scores[best])) {
+                    best = combination;
+                }
+            }
+            taken[best] = true;
+            suggestions.add(toSuggestion(chart, best, scores[best], exposed, covered));
+        }
+        return suggestions;
+    }
+
+    private TypeSuggestion toSuggestion(TypeChart chart, int combination, double score, boolean[] exposed,
+            boolean[] covered) {
+        int primary = chart.combinationPrimary(combination);
+        int secondary = chart.combinationSecondary(combination);
+        double[] defensive = chart.defensiveMultipliers(primary, secondary);
+
+        List<String> types = new ArrayList<>();
+        types.add(TypeName.byOrdinal(primary).getApiName());
+        if (secondary != primary) {
+            types.add(TypeName.byOrdinal(secondary).getApiName());
+        }
+
+        List<String> coveredWeaknesses = new ArrayList<>();
+        List<String> coveredGaps = new ArrayList<>();
+        for (int type = 0; type < TypeName.COUNT; type++) {
+            if (exposed[type] && defensive[type] < 1.0) {
+                coveredWeaknesses.add(TypeName.byOrdinal(type).getApiName());
+            }
+            if (!covered[type] && (chart.effectiveness(primary, type) > 1.0
+                    || chart.effectiveness(secondary, type) > 1.0)) {
+                coveredGaps.add(TypeName.byOrdinal(type).getApiName());
+            }
+        }
+
+        return TypeSuggestion.builder()
+                .types(types)
+                .score(score)
+                .coveredWeaknesses(coveredWeaknesses)
+                .coveredGaps(coveredGaps)
+                .build();
+    }
+
+    // Returns {primary, secondary} ordinals, secondary -1 for single-type Pokémon
+    private int[] typeOrdinals(Pokemon pokemon) {
+        int[] ordinals = { -1, -1 };
+        if (pokemon.getTypes() == null) {
+            return ordinals;
+        }
+        for (PokemonType type : pokemon.getTypes()) {
+            int ordinal = TypeName.ordinalOf(type.getType().getName());
+            if (ordinal < 0) {
+                continue;
+            }
+            if (ordinals[0] < 0) {
+                ordinals[0] = ordinal;
+            } else if (ordinals[1] < 0) {
+                ordinals[1] = ordinal;
+            }
+        }
+        return ordinals;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.ReactiveCache;
+import com.example.backend.cache.ReactiveCacheManager;
+import com.example.backend.models.type.TypePokemon;
+import com.example.backend.util.PokeApiUrls;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+// Type membership as one bitset per type, indexed by Pokémon id, built from the
+// member list of /type/{name}. Multi-type queries become word-wise AND/OR/ANDNOT.
+@Service
+public class TypeMembershipService {
+
+    private final PokemonService pokemonService;
+    private final ReactiveCache<String, BitSet> membersCache;
+
+    @Autowired
+    public TypeMembershipService(PokemonService pokemonService, ReactiveCacheManager cacheManager) {
+        this.pokemonService = pokemonService;
+        this.membersCache = cacheManager.getCache("typeMembers");
+    }
+
+    // Cached bitsets are shared, callers must not mutate the returned instance
+    public Mono<BitSet> membersOf(String typeName) {
+        return membersCache.get(typeName.toLowerCase(), key -> pokemonService.getTypeByName(key)
+                .map(type -> {
+                    BitSet members = new BitSet();
+                    if (type.getPokemon() != null) {
+                        for (TypePokemon typePokemon : type.getPokemon()) {
+                            Long id = PokeApiUrls.extractId(typePokemon.getPokemon().getUrl());
+                            if (id != null) {
+                                members.set(id.intValue());
+                            }
+                        }
+                    }
+                    return members;
+                }));
+    }
+
+    public Mono<BitSet> resolve(List<String> includedTypes, List<String> excludedTypes, boolean matchAll) {
+        List<String> excluded = excludedTypes != null ? excludedTypes : Collections.emptyList();
+        return Mono.zip(
+                Flux.fromIterable(includedTypes).flatMapSequential(this::membersOf).collectList(),
+                Flux.fromIterable(excluded).flatMapSequential(this::membersOf).collectList())
+                .map(tuple -> {
+                    List<BitSet> includes = tuple.getT1();
+                    BitSet result = new BitSet();
+                    if (!includes.isEmpty()) {
+                        result.or(includes.get(0));
+                        for (int i = 1; i < includes.size(); i++) {
+                            if (matchAll) {
+                                result.and(includes.get(i));
+                            } else {
+                                result.or(includes.get(i));
+                            }
+                        }
+                    }
+                    for (BitSet exclude : tuple.getT2()) {
+                        result.andNot(exclude);
+                    }
+                    return result;
+                });
+    }
+}
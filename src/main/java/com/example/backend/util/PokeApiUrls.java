@@ -0,0 +1,21 @@
+package com.example.backend.util;
+
+public final class PokeApiUrls {
+
+    private PokeApiUrls() {
+    }
+
+    // Resource URLs look like https://pokeapi.co/api/v2/pokemon/25/
+    public static Long extractId(String url) {
+        if (url == null || url.isEmpty()) {
+            return null;
+        }
+        String trimmed = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        int slashIndex = trimmed.lastIndexOf('/');
+        try {
+            return Long.parseLong(trimmed.substring(slashIndex + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+CREATE TABLE IF NOT EXISTS snapshot_resource (
+    resource VARCHAR(32) NOT NULL,
+    resource_id BIGINT NOT NULL,
+    name VARCHAR(128),
+    payload CLOB NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (resource, resource_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_snapshot_resource_name ON snapshot_resource (resource, name);
+
+-- The upstream list of each resource, stored in full before any entry is
+-- fetched, so list pages can be served even if some entries failed
+CREATE TABLE IF NOT EXISTS snapshot_index (
+    resource VARCHAR(32) NOT NULL,
+    resource_id BIGINT NOT NULL,
+    name VARCHAR(128),
+    PRIMARY KEY (resource, resource_id)
+);
+
+CREATE TABLE IF NOT EXISTS snapshot_progress (
+    resource VARCHAR(32) PRIMARY KEY,
+    total_count INT NOT NULL,
+    ingested_count INT NOT NULL,
+    completed BOOLEAN NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS ai_explanation (
+    pair_key VARCHAR(64) PRIMARY KEY,
+    base_id BIGINT NOT NULL,
+    candidate_id BIGINT NOT NULL,
+    explanation CLOB NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS generated_content (
+    content_key VARCHAR(64) PRIMARY KEY,
+    content_id VARCHAR(36) NOT NULL,
+    content_type VARCHAR(32) NOT NULL,
+    payload CLOB NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    last_access TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_generated_content_last_access ON generated_content (last_access);
+
+CREATE INDEX IF NOT EXISTS idx_generated_content_id ON generated_content (content_id);
+
+-- content_id points at the stored entry; a checkpoint whose entry was evicted
+-- from generated_content no longer counts as completed
+CREATE TABLE IF NOT EXISTS pokedex_warmup (
+    variant VARCHAR(96) NOT NULL,
+    pokemon_id BIGINT NOT NULL,
+    content_id VARCHAR(36),
+    completed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (variant, pokemon_id)
+);
@@ -3,7 +3,16 @@ package com.example.backend;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// The AI provider is normally configured through environment variables; the
+// context must load without them and without reaching the PokeAPI
+@SpringBootTest(properties = {
+		"AI_PROVIDER_URL=http://localhost:0",
+		"AI_PROVIDER_KEY=test",
+		"AI_MODEL=test-model",
+		"pokeapi.known-names.load-on-startup=false",
+		"search.index.build-on-startup=false",
+		"spring.datasource.url=jdbc:h2:mem:context-loads"
+})
 class BackendApplicationTests {
 
 	@Test
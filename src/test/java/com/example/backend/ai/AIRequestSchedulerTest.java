@@ -0,0 +1,151 @@
+package com.example.backend.ai;
+
+import com.example.backend.models.ai.AIRequest;
+import com.example.backend.service.AIService;
+import com.example.backend.support.StubAIProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs AIService through the scheduler against a local stub provider
+class AIRequestSchedulerTest {
+
+    private StubAIProvider provider;
+    private AIRequestScheduler scheduler;
+    private AIService aiService;
+
+    @BeforeEach
+    void setUp() {
+        provider = StubAIProvider.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.close();
+    }
+
+    @Test
+    void dispatchesQueuedCallsFromTheHighestLaneFirst() throws Exception {
+        createService(1, 0, VirtualTimeScheduler.create());
+        provider.hold();
+        CompletableFuture<String> blocker = aiService.generateContent(request("story", "blocker", null)).toFuture();
+        provider.awaitPrompts(1, 5000);
+
+        List<CompletableFuture<String>> queued = List.of(
+                aiService.generateContent(request("story", "story-2", null)).toFuture(),
+                aiService.generateContent(request("general", "general", null)).toFuture(),
+                aiService.generateContent(request("explanation", "explanation", null)).toFuture());
+        assertThat(scheduler.stats().getQueueDepth()).isEqualTo(3);
+
+        provider.release();
+        blocker.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<String> call : queued) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(provider.prompts()).containsExactly("blocker", "explanation", "general", "story-2");
+    }
+
+    @Test
+    void waitsForTheTokenBucketToRefill() throws Exception {
+        VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        createService(4, 0, 1200, clock);
+
+        // Each call costs a little over 1000 tokens, so the second one has to
+        // wait for roughly 45 seconds of refill
+        CompletableFuture<String> first = aiService.generateContent(request("general", "first", 1000)).toFuture();
+        CompletableFuture<String> second = aiService.generateContent(request("general", "second", 1000)).toFuture();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("Resposta para: first");
+        assertThat(scheduler.stats().getQueueDepth()).isEqualTo(1);
+
+        clock.advanceTimeBy(Duration.ofSeconds(30));
+        assertThat(second).isNotDone();
+        assertThat(provider.prompts()).containsExactly("first");
+
+        clock.advanceTimeBy(Duration.ofSeconds(30));
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("Resposta para: second");
+        assertThat(provider.prompts()).containsExactly("first", "second");
+    }
+
+    @Test
+    void cancellingAStreamReleasesItsSlot() throws Exception {
+        createService(1, 0, VirtualTimeScheduler.create());
+        provider.respondWith(prompt -> "Olá treinador").holdStreamsOpen();
+
+        List<String> received = new CopyOnWriteArrayList<>();
+        Disposable stream = aiService.streamContent(request("explanation", "stream", null)).subscribe(received::add);
+        CompletableFuture<String> next = aiService.generateContent(request("general", "next", null)).toFuture();
+        assertThat(scheduler.stats().getQueueDepth()).isEqualTo(1);
+
+        // Cancel mid-stream, once the first chunk has arrived
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        stream.dispose();
+
+        assertThat(next.get(5, TimeUnit.SECONDS)).isEqualTo("Olá treinador");
+        assertThat(received).containsExactly("Olá");
+        awaitIdle();
+        assertThat(scheduler.stats().getInFlight()).isZero();
+        assertThat(scheduler.stats().getCompletedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cancellingAQueuedCallRemovesItFromItsLane() throws Exception {
+        createService(1, 0, VirtualTimeScheduler.create());
+        provider.hold();
+        CompletableFuture<String> running = aiService.generateContent(request("general", "running", null)).toFuture();
+        provider.awaitPrompts(1, 5000);
+
+        Disposable queued = aiService.generateContent(request("story", "queued", null)).subscribe();
+        assertThat(scheduler.stats().getQueueDepth()).isEqualTo(1);
+        queued.dispose();
+        assertThat(scheduler.stats().getQueueDepth()).isZero();
+
+        provider.release();
+        running.get(5, TimeUnit.SECONDS);
+        awaitIdle();
+        assertThat(provider.prompts()).containsExactly("running");
+    }
+
+    private void createService(int maxInFlight, int maxQueueSize, Scheduler timer) {
+        createService(maxInFlight, maxQueueSize, 0, timer);
+    }
+
+    private void createService(int maxInFlight, int maxQueueSize, long tokensPerMinute, Scheduler timer) {
+        scheduler = new AIRequestScheduler(maxInFlight, maxQueueSize, tokensPerMinute, timer);
+        aiService = new AIService(WebClient.create(provider.baseUrl()), new ObjectMapper(), scheduler);
+        ReflectionTestUtils.setField(aiService, "aiModel", "test-model");
+    }
+
+    // Slots are handed back just after the caller sees the result
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.stats().getInFlight() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static AIRequest request(String contentType, String prompt, Integer maxLength) {
+        return AIRequest.builder()
+                .contentType(contentType)
+                .prompt(prompt)
+                .maxLength(maxLength)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveCacheTest {
+
+    private final ReactiveCache<String, String> cache = new ReactiveCache<>("test", 100, Duration.ofMinutes(5));
+
+    @Test
+    void concurrentMissesShareOneLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        Mono<String> first = cache.get("pikachu", key -> {
+            loads.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<String> second = cache.get("pikachu", key -> {
+            loads.incrementAndGet();
+            return upstream.asMono();
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> upstream.tryEmitValue("Pikachu"))
+                .assertNext(both -> {
+                    assertThat(both.getT1()).isEqualTo("Pikachu");
+                    assertThat(both.getT2()).isEqualTo("Pikachu");
+                })
+                .verifyComplete();
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().getCoalescedCount()).isEqualTo(1);
+        assertThat(cache.stats().getInFlightCount()).isZero();
+    }
+
+    @Test
+    void resolvedValueIsServedWithoutReloading() {
+        AtomicInteger loads = new AtomicInteger();
+
+        StepVerifier.create(cache.get("eevee", key -> Mono.fromSupplier(() -> {
+                    loads.incrementAndGet();
+                    return "Eevee";
+                })))
+                .expectNext("Eevee")
+                .verifyComplete();
+        StepVerifier.create(cache.get("eevee", key -> Mono.error(new IllegalStateException("should not load"))))
+                .expectNext("Eevee")
+                .verifyComplete();
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getIfPresent("eevee")).isEqualTo("Eevee");
+    }
+
+    @Test
+    void failedLoadIsRemovedFromInFlightAndNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        StepVerifier.create(cache.get("missingno", key -> {
+                    loads.incrementAndGet();
+                    return Mono.<String>error(new IllegalStateException("upstream down"));
+                }))
+                .expectErrorMessage("upstream down")
+                .verify();
+
+        assertThat(cache.stats().getInFlightCount()).isZero();
+        assertThat(cache.getIfPresent("missingno")).isNull();
+
+        StepVerifier.create(cache.get("missingno", key -> {
+                    loads.incrementAndGet();
+                    return Mono.just("MissingNo.");
+                }))
+                .expectNext("MissingNo.")
+                .verifyComplete();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void emptyLoadIsNotCached() {
+        StepVerifier.create(cache.get("ghost", key -> Mono.empty())).verifyComplete();
+
+        assertThat(cache.getIfPresent("ghost")).isNull();
+        assertThat(cache.stats().getInFlightCount()).isZero();
+    }
+
+    @Test
+    void staleEntriesAreReloadedWithTheRefresher() throws InterruptedException {
+        ReactiveCache<String, String> refreshing = new ReactiveCache<>("refreshing", 100, Duration.ofMinutes(5),
+                Duration.ofMillis(20));
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger refreshes = new AtomicInteger();
+
+        assertThat(refreshing.get("ditto", key -> Mono.fromSupplier(() -> {
+                    loads.incrementAndGet();
+                    return "snapshot";
+                }), key -> Mono.fromSupplier(() -> {
+                    refreshes.incrementAndGet();
+                    return "upstream";
+                })).block()).isEqualTo("snapshot");
+        Thread.sleep(50);
+
+        // The stale value is served while the refresher replaces it
+        assertThat(refreshing.get("ditto", key -> Mono.just("snapshot"), key -> Mono.fromSupplier(() -> {
+                    refreshes.incrementAndGet();
+                    return "upstream";
+                })).block()).isEqualTo("snapshot");
+
+        assertThat(refreshing.getIfPresent("ditto")).isEqualTo("upstream");
+        assertThat(loads).hasValue(1);
+        assertThat(refreshes).hasValue(1);
+        assertThat(refreshing.stats().getRefreshCount()).isEqualTo(1);
+        assertThat(refreshing.stats().getInFlightCount()).isZero();
+    }
+
+    @Test
+    void racingMissesStartASingleLoad() throws Exception {
+        // Synchronous loads finish almost at once, so callers that missed the
+        // cache keep arriving after the in-flight load is gone
+        int callers = 8;
+        int rounds = 200;
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                String key = "mew-" + round;
+                CyclicBarrier start = new CyclicBarrier(callers);
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < callers; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return cache.get(key, k -> Mono.fromSupplier(() -> {
+                            loads.incrementAndGet();
+                            return "Mew";
+                        })).block();
+                    }));
+                }
+                for (Future<String> result : results) {
+                    assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Mew");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(rounds);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.backend.http;
+
+import com.example.backend.support.StubHttpServer;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerRegistryTest {
+
+    private StubHttpServer pokeApi;
+    private CircuitBreakerRegistry registry;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        pokeApi = StubHttpServer.start()
+                .json("/pokemon/1", "{\"id\":1}")
+                .status("/pokemon/2", 503)
+                .handle("/pokemon/3", exchange -> slowBody(exchange, 2000));
+        // Calls over 500ms are slow, calls over 1s time out
+        registry = new CircuitBreakerRegistry(pokeApi.baseUrl(), Duration.ofSeconds(1),
+                route -> new CircuitBreaker(route, 10, 1, 0.5, 1.0, Duration.ofMillis(500),
+                        Duration.ofMinutes(1), 1));
+        // The first exchange of a fresh client pays for connection setup, which
+        // must not count against the timeouts under test
+        WebClient.create(pokeApi.baseUrl()).get().uri("/pokemon/1").retrieve().toBodilessEntity().block();
+        webClient = WebClient.builder()
+                .baseUrl(pokeApi.baseUrl())
+                .filter(registry.filter())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pokeApi.close();
+    }
+
+    @Test
+    void recordsSuccessOnceTheBodyIsRead() {
+        StepVerifier.create(get("/pokemon/1")).expectNext("{\"id\":1}").verifyComplete();
+
+        CircuitBreaker breaker = registry.breakerFor("pokemon");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.stats().getBufferedCalls()).isEqualTo(1);
+        assertThat(breaker.stats().getFailureRate()).isZero();
+    }
+
+    @Test
+    void serverErrorsCountAsFailures() {
+        StepVerifier.create(get("/pokemon/2")).expectError().verify(Duration.ofSeconds(5));
+
+        assertThat(registry.breakerFor("pokemon").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void slowBodyTimesOutAndCountsAsFailure() {
+        StepVerifier.create(get("/pokemon/3"))
+                .expectErrorSatisfies(e -> assertThat(e).hasRootCauseInstanceOf(TimeoutException.class))
+                .verify(Duration.ofSeconds(5));
+
+        CircuitBreaker breaker = registry.breakerFor("pokemon");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.stats().getOpenedCount()).isEqualTo(1);
+    }
+
+    private Mono<String> get(String path) {
+        return webClient.get().uri(path).retrieve().bodyToMono(String.class);
+    }
+
+    // Headers go out at once; the body only completes after the delay
+    private static StubHttpServer.Response slowBody(HttpExchange exchange, long delayMillis) {
+        try {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("{\"id\":".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                Thread.sleep(delayMillis);
+                out.write("3}".getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            // The client gave up on the body
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.backend.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    // Window of 4 calls, opening at 50% failures or slow calls, 2 trial calls
+    private final CircuitBreaker breaker = new CircuitBreaker("pokemon", 4, 4, 0.5, 0.5,
+            Duration.ofSeconds(1), Duration.ofMillis(50), 2);
+
+    @Test
+    void staysClosedUntilTheMinimumNumberOfCalls() {
+        call(false);
+        call(false);
+        call(false);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.stats().getBufferedCalls()).isEqualTo(3);
+    }
+
+    @Test
+    void opensOnFailureRateAndRejectsCalls() {
+        call(true);
+        call(false);
+        call(true);
+        call(false);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isNegative();
+        assertThat(breaker.stats().getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void opensOnSlowCallRate() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(breaker.tryAcquire(), true, i < 2 ? SLOW : FAST);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenLimitsTrialCallsAndClosesWhenTheyAllSucceed() throws InterruptedException {
+        open();
+        Thread.sleep(80);
+
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(first).isNotNegative();
+        assertThat(second).isNotNegative();
+        // Only halfOpenCalls trial calls at a time
+        assertThat(breaker.tryAcquire()).isNegative();
+
+        breaker.onResult(first, true, FAST);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onResult(second, true, FAST);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.stats().getBufferedCalls()).isZero();
+        assertThat(breaker.stats().getClosedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedOrSlowTrialReopens() throws InterruptedException {
+        open();
+        Thread.sleep(80);
+        breaker.onResult(breaker.tryAcquire(), false, FAST);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.sleep(80);
+        breaker.onResult(breaker.tryAcquire(), true, SLOW);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.stats().getOpenedCount()).isEqualTo(3);
+    }
+
+    @Test
+    void releasedTrialFreesItsSlot() throws InterruptedException {
+        open();
+        Thread.sleep(80);
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        assertThat(breaker.tryAcquire()).isNegative();
+
+        breaker.release(first);
+
+        assertThat(breaker.tryAcquire()).isNotNegative();
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void ignoresOutcomesFromAnEarlierEpoch() throws InterruptedException {
+        long admittedWhileClosed = breaker.tryAcquire();
+        open();
+        Thread.sleep(80);
+        long trial = breaker.tryAcquire();
+
+        // A late failure from before the breaker opened must not reopen it
+        breaker.onResult(admittedWhileClosed, false, FAST);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(trial).isNotEqualTo(admittedWhileClosed);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void call(boolean failed) {
+        breaker.onResult(breaker.tryAcquire(), !failed, FAST);
+    }
+}
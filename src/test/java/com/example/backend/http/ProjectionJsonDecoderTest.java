@@ -0,0 +1,108 @@
+package com.example.backend.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProjectionJsonDecoderTest {
+
+    private static final String DOCUMENT = "{\"id\":25,\"name\":\"pikachu\","
+            + "\"moves\":[{\"move\":{\"name\":\"thunder\"},\"details\":[[1,2],[{\"level\":[3]}]]}],"
+            + "\"grid\":[[1,2],[],[3]],"
+            + "\"stats\":{\"speed\":90,\"extra\":{\"nested\":[true]}},"
+            + "\"children\":[{\"name\":\"pichu\",\"unused\":{\"a\":1}},{\"name\":\"raichu\"}],"
+            + "\"sprites\":{\"front\":\"a.png\",\"versions\":{\"i\":{\"x\":null}}}}";
+
+    // Unknown fields fail plain Jackson binding, so a successful decode proves
+    // they were dropped before binding
+    private final ProjectionJsonDecoder decoder = new ProjectionJsonDecoder(new ObjectMapper(), Set.of(Sample.class));
+
+    @Test
+    void keepsOnlyDeclaredFields() {
+        Sample sample = decode(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(sample.id).isEqualTo(25);
+        assertThat(sample.name).isEqualTo("pikachu");
+        assertThat(sample.children).extracting(child -> child.name).containsExactly("pichu", "raichu");
+        // Maps are kept whole
+        assertThat(sample.stats).containsEntry("speed", 90).containsKey("extra");
+    }
+
+    @Test
+    void keepsNestedArraysAndSkipsUndeclaredOnes() {
+        Sample sample = decode(DOCUMENT.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(sample.grid).containsExactly(List.of(1, 2), List.of(), List.of(3));
+    }
+
+    @Test
+    void decodesTheSameDocumentAtEveryChunkBoundary() {
+        byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        for (int split = 1; split < bytes.length; split++) {
+            Sample sample = decode(Arrays.copyOfRange(bytes, 0, split), Arrays.copyOfRange(bytes, split, bytes.length));
+            assertThat(sample.name).as("split at %d", split).isEqualTo("pikachu");
+            assertThat(sample.grid).as("split at %d", split).containsExactly(List.of(1, 2), List.of(), List.of(3));
+        }
+
+        byte[][] singleBytes = new byte[bytes.length][];
+        for (int i = 0; i < bytes.length; i++) {
+            singleBytes[i] = new byte[] { bytes[i] };
+        }
+        assertThat(decode(singleBytes).children).hasSize(2);
+    }
+
+    @Test
+    void ignoresInputAfterTheDocument() {
+        Sample sample = decode(
+                "{\"id\":1,\"name\":\"bulbasaur\"}  ".getBytes(StandardCharsets.UTF_8),
+                "\n  ".getBytes(StandardCharsets.UTF_8),
+                "{\"id\":2}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(sample.id).isEqualTo(1);
+        assertThat(sample.name).isEqualTo("bulbasaur");
+    }
+
+    @Test
+    void truncatedDocumentFailsInsteadOfCompletingEmpty() {
+        byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        for (int cut : new int[] { 1, 8, bytes.length / 2, bytes.length - 1 }) {
+            assertThatThrownBy(() -> decode(Arrays.copyOfRange(bytes, 0, cut)))
+                    .as("cut at %d", cut)
+                    .isInstanceOf(DecodingException.class);
+        }
+        // No document at all is still no value
+        assertThat(decode(new byte[0])).isNull();
+    }
+
+    private Sample decode(byte[]... chunks) {
+        Flux<DataBuffer> body = Flux.fromArray(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+        return (Sample) decoder.decodeToMono(body, ResolvableType.forClass(Sample.class),
+                MediaType.APPLICATION_JSON, Map.of()).block();
+    }
+
+    public static class Sample {
+        public int id;
+        public String name;
+        public List<List<Integer>> grid;
+        public Map<String, Object> stats;
+        public List<Child> children;
+    }
+
+    public static class Child {
+        public String name;
+    }
+}
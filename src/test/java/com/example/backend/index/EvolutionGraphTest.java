@@ -0,0 +1,84 @@
+package com.example.backend.index;
+
+import com.example.backend.models.evolution.EvolutionChain;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EvolutionGraphTest {
+
+    static final String PIKACHU_CHAIN = "{\"id\":10,\"chain\":{\"is_baby\":true,"
+            + "\"species\":{\"name\":\"pichu\",\"url\":\"https://pokeapi.co/api/v2/pokemon-species/172/\"},"
+            + "\"evolves_to\":[{\"species\":{\"name\":\"pikachu\",\"url\":\"https://pokeapi.co/api/v2/pokemon-species/25/\"},"
+            + "\"evolves_to\":[{\"species\":{\"name\":\"raichu\",\"url\":\"https://pokeapi.co/api/v2/pokemon-species/26/\"},"
+            + "\"evolves_to\":[]}]}]}}";
+
+    static final String EEVEE_CHAIN = "{\"id\":67,\"chain\":{"
+            + "\"species\":{\"name\":\"eevee\",\"url\":\"https://pokeapi.co/api/v2/pokemon-species/133/\"},"
+            + "\"evolves_to\":["
+            + "{\"species\":{\"name\":\"vaporeon\",\"url\":\"https://pokeapi.co/api/v2/pokemon-species/134/\"},\"evolves_to\":[]},"
+            + "{\"species\":{\"name\":\"jolteon\",\"url\":\"https://pokeapi.co/api/v2/pokemon-species/135/\"},\"evolves_to\":[]}]}}";
+
+    private final EvolutionGraph graph = EvolutionGraph.of(List.of(chain(PIKACHU_CHAIN), chain(EEVEE_CHAIN)));
+
+    @Test
+    void resolvesParentsChildrenAndDepth() {
+        assertThat(graph.speciesIdOf("pikachu")).isEqualTo(25);
+        assertThat(graph.parentOf(25)).isEqualTo(172);
+        assertThat(graph.parentOf(172)).isZero();
+        assertThat(graph.childrenOf(25)).containsExactly(26);
+        assertThat(graph.childrenOf(133)).containsExactly(134, 135);
+        assertThat(graph.depthOf(26)).isEqualTo(2);
+        assertThat(graph.isBaby(172)).isTrue();
+        assertThat(graph.chainOf(135)).isEqualTo(67);
+    }
+
+    @Test
+    void listsTheWholeLineParentsFirst() {
+        assertThat(graph.lineOf(26)).containsExactly(172, 25, 26);
+        assertThat(graph.lineOf(134)).containsExactly(133, 134, 135);
+        assertThat(graph.chainCount()).isEqualTo(2);
+        assertThat(graph.speciesCount()).isEqualTo(6);
+    }
+
+    @Test
+    void unknownSpeciesHaveNoRelations() {
+        assertThat(graph.contains(1)).isFalse();
+        assertThat(graph.contains(100000)).isFalse();
+        assertThat(graph.speciesIdOf("bulbasaur")).isZero();
+        assertThat(graph.lineOf(1)).isEmpty();
+        assertThat(graph.childrenOf(1)).isEmpty();
+        assertThat(graph.chain(graph.chainOf(1))).isNull();
+    }
+
+    @Test
+    void mergingReplacesAChainAndKeepsTheOthers() {
+        EvolutionChain withoutPichu = chain("{\"id\":10,\"chain\":{"
+                + "\"species\":{\"name\":\"pikachu\",\"url\":\"https://pokeapi.co/api/v2/pokemon-species/25/\"},"
+                + "\"evolves_to\":[{\"species\":{\"name\":\"raichu\",\"url\":\"https://pokeapi.co/api/v2/pokemon-species/26/\"},"
+                + "\"evolves_to\":[]}]}}");
+        EvolutionGraph updated = graph.withChains(List.of(withoutPichu));
+
+        assertThat(updated.contains(172)).isFalse();
+        assertThat(updated.speciesIdOf("pichu")).isZero();
+        assertThat(updated.parentOf(25)).isZero();
+        assertThat(updated.lineOf(26)).containsExactly(25, 26);
+        assertThat(updated.lineOf(133)).containsExactly(133, 134, 135);
+        // The original graph is untouched
+        assertThat(graph.parentOf(25)).isEqualTo(172);
+        assertThat(graph.withChains(List.of())).isSameAs(graph);
+    }
+
+    static EvolutionChain chain(String json) {
+        try {
+            return new ObjectMapper().readValue(json, EvolutionChain.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.backend.index;
+
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonType;
+import com.example.backend.models.search.PokemonSearchQuery;
+import com.example.backend.models.type.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PokemonIndexTest {
+
+    private final PokemonIndex index = PokemonIndex.of(List.of(
+            pokemon(1, "bulbasaur", 7, 69, 64, "grass", "poison"),
+            pokemon(4, "charmander", 6, 85, 62, "fire"),
+            pokemon(6, "charizard", 17, 905, 240, "fire", "flying"),
+            pokemon(7, "squirtle", 5, 90, 63, "water"),
+            pokemon(25, "pikachu", 4, 60, 112, "electric"),
+            pokemon(144, "articuno", 17, 554, 261, "ice", "flying")));
+
+    @Test
+    void defaultsToIdOrder() {
+        assertThat(index.search(query().build())).containsExactly(1L, 4L, 6L, 7L, 25L, 144L);
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(index.containsName("pikachu")).isTrue();
+    }
+
+    @Test
+    void filtersByEveryRequiredType() {
+        assertThat(index.search(query().types(List.of("fire")).build())).containsExactly(4L, 6L);
+        assertThat(index.search(query().types(List.of("fire", "flying")).build())).containsExactly(6L);
+        assertThat(index.search(query().types(List.of("flying")).build())).containsExactly(6L, 144L);
+    }
+
+    @Test
+    void filtersByInclusiveRanges() {
+        assertThat(index.search(query().minHeight(6).maxHeight(7).build())).containsExactly(1L, 4L);
+        assertThat(index.search(query().minBaseExperience(200).build())).containsExactly(6L, 144L);
+        assertThat(index.search(query().maxWeight(69).build())).containsExactly(1L, 25L);
+    }
+
+    @Test
+    void sortsByAttributeInBothDirections() {
+        assertThat(index.search(query().sortBy("weight").build())).containsExactly(25L, 1L, 4L, 7L, 144L, 6L);
+        assertThat(index.search(query().sortBy("weight").ascending(false).build()))
+                .containsExactly(6L, 144L, 7L, 4L, 1L, 25L);
+        assertThat(index.search(query().sortBy("name").limit(3).build())).containsExactly(144L, 1L, 6L);
+    }
+
+    @Test
+    void pagesAfterFiltering() {
+        PokemonSearchQuery page = query().types(List.of("fire")).sortBy("height").limit(1).offset(1).build();
+        assertThat(index.search(page)).containsExactly(6L);
+        assertThat(index.search(query().offset(10).build())).isEmpty();
+    }
+
+    @Test
+    void rejectsUnknownSortAttribute() {
+        assertThatThrownBy(() -> index.search(query().sortBy("speed").build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("speed");
+    }
+
+    @Test
+    void addingPokemonReplacesRowsWithTheSameId() {
+        PokemonIndex updated = index.withPokemon(List.of(pokemon(25, "pikachu", 4, 60, 112, "electric", "fairy")));
+        assertThat(updated.size()).isEqualTo(6);
+        assertThat(updated.search(query().types(List.of("fairy")).build())).containsExactly(25L);
+        assertThat(index.search(query().types(List.of("fairy")).build())).isEmpty();
+    }
+
+    private static PokemonSearchQuery.PokemonSearchQueryBuilder query() {
+        return PokemonSearchQuery.builder().ascending(true).limit(20);
+    }
+
+    private static Pokemon pokemon(long id, String name, int height, int weight, int baseExperience,
+            String... types) {
+        Pokemon pokemon = new Pokemon();
+        pokemon.setId(id);
+        pokemon.setName(name);
+        pokemon.setHeight(height);
+        pokemon.setWeight(weight);
+        pokemon.setBaseExperience(baseExperience);
+        List<PokemonType> slots = new ArrayList<>();
+        for (String typeName : types) {
+            Type type = new Type();
+            type.setName(typeName);
+            PokemonType slot = new PokemonType();
+            slot.setType(type);
+            slots.add(slot);
+        }
+        pokemon.setTypes(slots);
+        return pokemon;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.backend.index;
+
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonType;
+import com.example.backend.models.type.Type;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimilarityEngineTest {
+
+    private final SimilarityEngine engine = SimilarityEngine.of(PokemonIndex.of(List.of(
+            pokemon(4, "charmander", 6, 85, 62, "fire"),
+            pokemon(5, "charmeleon", 11, 190, 142, "fire"),
+            pokemon(6, "charizard", 17, 905, 240, "fire", "flying"),
+            pokemon(7, "squirtle", 5, 90, 63, "water"))));
+
+    @Test
+    void ranksRowsSharingACandidateTypeAndSkipsTheBase() {
+        Pokemon base = pokemon(4, "charmander", 6, 85, 62, "fire");
+        TopK top = engine.rank(base, PokemonIndex.typeMaskOf(List.of("fire")),
+                SimilarityEngine.weightsFor("balanced"), 5).sortDescending();
+
+        assertThat(top.size()).isEqualTo(2);
+        assertThat(engine.idAt(top.rowAt(0))).isEqualTo(5L);
+        assertThat(engine.idAt(top.rowAt(1))).isEqualTo(6L);
+    }
+
+    @Test
+    void hugeLimitIsBoundedByTheDexSize() {
+        Pokemon base = pokemon(7, "squirtle", 5, 90, 63, "water");
+        TopK top = engine.rank(base, PokemonIndex.typeMaskOf(List.of("fire", "water")),
+                SimilarityEngine.weightsFor("balanced"), Integer.MAX_VALUE);
+
+        assertThat(top.size()).isEqualTo(3);
+    }
+
+    private static Pokemon pokemon(long id, String name, int height, int weight, int baseExperience,
+            String... types) {
+        Pokemon pokemon = new Pokemon();
+        pokemon.setId(id);
+        pokemon.setName(name);
+        pokemon.setHeight(height);
+        pokemon.setWeight(weight);
+        pokemon.setBaseExperience(baseExperience);
+        List<PokemonType> slots = new ArrayList<>();
+        for (String typeName : types) {
+            Type type = new Type();
+            type.setName(typeName);
+            PokemonType slot = new PokemonType();
+            slot.setType(type);
+            slots.add(slot);
+        }
+        pokemon.setTypes(slots);
+        return pokemon;
+    }
+}
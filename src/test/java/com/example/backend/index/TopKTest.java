@@ -0,0 +1,79 @@
+package com.example.backend.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKTest {
+
+    @Test
+    void keepsHighestScoresInDescendingOrder() {
+        TopK top = new TopK(3);
+        double[] scores = { 0.2, 0.9, 0.1, 0.5, 0.7, 0.3 };
+        for (int row = 0; row < scores.length; row++) {
+            top.offer(row, scores[row]);
+        }
+        top.sortDescending();
+
+        assertThat(top.size()).isEqualTo(3);
+        assertThat(rows(top)).containsExactly(1, 4, 3);
+        assertThat(top.scoreAt(0)).isEqualTo(0.9);
+        assertThat(top.scoreAt(2)).isEqualTo(0.5);
+    }
+
+    @Test
+    void fewerOffersThanCapacity() {
+        TopK top = new TopK(5);
+        top.offer(7, 1.0);
+        top.offer(8, 3.0);
+        top.sortDescending();
+
+        assertThat(top.size()).isEqualTo(2);
+        assertThat(rows(top)).containsExactly(8, 7);
+    }
+
+    @Test
+    void tieAtTheCutoffKeepsTheEarlierRow() {
+        TopK top = new TopK(2);
+        top.offer(1, 0.5);
+        top.offer(2, 0.8);
+        top.offer(3, 0.5);
+        top.sortDescending();
+
+        assertThat(rows(top)).containsExactly(2, 1);
+    }
+
+    @Test
+    void tiedScoresAreAllKeptWhenTheyFit() {
+        TopK top = new TopK(3);
+        top.offer(1, 0.4);
+        top.offer(2, 0.4);
+        top.offer(3, 0.4);
+        top.offer(4, 0.1);
+        top.sortDescending();
+
+        assertThat(rows(top)).containsExactlyInAnyOrder(1, 2, 3);
+        for (int position = 0; position < top.size(); position++) {
+            assertThat(top.scoreAt(position)).isEqualTo(0.4);
+        }
+    }
+
+    @Test
+    void zeroCapacityIgnoresOffers() {
+        TopK top = new TopK(0);
+        top.offer(1, 1.0);
+
+        assertThat(top.sortDescending().size()).isZero();
+    }
+
+    private static List<Integer> rows(TopK top) {
+        List<Integer> rows = new ArrayList<>();
+        for (int position = 0; position < top.size(); position++) {
+            rows.add(top.rowAt(position));
+        }
+        return rows;
+    }
+}
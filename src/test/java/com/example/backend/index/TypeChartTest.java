@@ -0,0 +1,95 @@
+package com.example.backend.index;
+
+import com.example.backend.models.NamedApiResource;
+import com.example.backend.models.type.TypeRelations;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.example.backend.models.type.TypeName.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeChartTest {
+
+    private final TypeChart chart = TypeChart.standard();
+
+    @Test
+    void singleTypeMultipliers() {
+        assertThat(chart.effectiveness(FIRE.ordinal(), GRASS.ordinal())).isEqualTo(2.0);
+        assertThat(chart.effectiveness(FIRE.ordinal(), WATER.ordinal())).isEqualTo(0.5);
+        assertThat(chart.effectiveness(NORMAL.ordinal(), FIRE.ordinal())).isEqualTo(1.0);
+    }
+
+    @Test
+    void immunities() {
+        assertThat(chart.effectiveness(NORMAL.ordinal(), GHOST.ordinal())).isZero();
+        assertThat(chart.effectiveness(ELECTRIC.ordinal(), GROUND.ordinal())).isZero();
+        assertThat(chart.effectiveness(DRAGON.ordinal(), FAIRY.ordinal())).isZero();
+        assertThat(chart.effectiveness(PSYCHIC.ordinal(), DARK.ordinal())).isZero();
+    }
+
+    @Test
+    void dualTypesMultiplyBothDefenders() {
+        // Charizard (fire/flying) takes 4x from rock, 0x from ground
+        double[] fireFlying = chart.defensiveMultipliers(FIRE.ordinal(), FLYING.ordinal());
+        assertThat(fireFlying[ROCK.ordinal()]).isEqualTo(4.0);
+        assertThat(fireFlying[GROUND.ordinal()]).isZero();
+        assertThat(fireFlying[GRASS.ordinal()]).isEqualTo(0.25);
+        assertThat(fireFlying[WATER.ordinal()]).isEqualTo(2.0);
+
+        // Immunity wins over a weakness on the other type (ghost/normal vs fighting)
+        assertThat(chart.defensiveMultipliers(NORMAL.ordinal(), GHOST.ordinal())[FIGHTING.ordinal()]).isZero();
+    }
+
+    @Test
+    void dualTypeOrderDoesNotMatter() {
+        assertThat(chart.defensiveMultipliers(WATER.ordinal(), GROUND.ordinal()))
+                .isSameAs(chart.defensiveMultipliers(GROUND.ordinal(), WATER.ordinal()));
+        assertThat(chart.defensiveMultipliers(WATER.ordinal(), GROUND.ordinal())[GRASS.ordinal()]).isEqualTo(4.0);
+        assertThat(chart.defensiveMultipliers(WATER.ordinal(), GROUND.ordinal())[ELECTRIC.ordinal()]).isZero();
+    }
+
+    @Test
+    void singleTypeDefenseMatchesAttackColumn() {
+        double[] steel = chart.defensiveMultipliers(STEEL.ordinal(), -1);
+        assertThat(steel[POISON.ordinal()]).isZero();
+        assertThat(steel[FIRE.ordinal()]).isEqualTo(2.0);
+        assertThat(steel[NORMAL.ordinal()]).isEqualTo(0.5);
+    }
+
+    @Test
+    void everyCombinationIsEnumeratedOnce() {
+        assertThat(TypeChart.COMBINATION_COUNT).isEqualTo(171);
+        int singles = 0;
+        for (int combination = 0; combination < TypeChart.COMBINATION_COUNT; combination++) {
+            assertThat(chart.combinationPrimary(combination)).isLessThanOrEqualTo(chart.combinationSecondary(combination));
+            if (chart.combinationPrimary(combination) == chart.combinationSecondary(combination)) {
+                singles++;
+            }
+        }
+        assertThat(singles).isEqualTo(18);
+    }
+
+    @Test
+    void buildsFromDamageRelations() {
+        TypeRelations electric = new TypeRelations();
+        electric.setDoubleDamageTo(List.of(resource("water"), resource("flying")));
+        electric.setHalfDamageTo(List.of(resource("grass")));
+        electric.setNoDamageTo(List.of(resource("ground"), resource("shadow")));
+
+        TypeChart upstream = TypeChart.fromDamageRelations(Map.of("electric", electric));
+
+        assertThat(upstream.effectiveness(ELECTRIC.ordinal(), WATER.ordinal())).isEqualTo(2.0);
+        assertThat(upstream.effectiveness(ELECTRIC.ordinal(), GRASS.ordinal())).isEqualTo(0.5);
+        assertThat(upstream.effectiveness(ELECTRIC.ordinal(), GROUND.ordinal())).isZero();
+        assertThat(upstream.effectiveness(ELECTRIC.ordinal(), FIRE.ordinal())).isEqualTo(1.0);
+        assertThat(upstream.effectiveness(FIRE.ordinal(), GRASS.ordinal())).isEqualTo(1.0);
+    }
+
+    private static NamedApiResource resource(String name) {
+        NamedApiResource resource = new NamedApiResource();
+        resource.setName(name);
+        return resource;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.ReactiveCacheManager;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.models.evolution.EvolutionLine;
+import com.example.backend.models.evolution.EvolutionStage;
+import com.example.backend.repository.SnapshotRepository;
+import com.example.backend.support.StubHttpServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EvolutionGraphServiceTest {
+
+    private StubHttpServer pokeApi;
+    private EvolutionGraphService evolutionGraphService;
+
+    @BeforeEach
+    void setUp() {
+        pokeApi = StubHttpServer.start();
+        String chainUrl = pokeApi.baseUrl() + "/evolution-chain/10/";
+        pokeApi.json("/pokemon-species/25", species(25, "pikachu", chainUrl))
+                .json("/pokemon-species/pikachu", species(25, "pikachu", chainUrl))
+                .json("/pokemon-species/raichu", species(26, "raichu", chainUrl))
+                .json("/pokemon-species/missingno", "{\"id\":0,\"name\":\"missingno\"}")
+                .json("/evolution-chain/10", "{\"id\":10,\"chain\":{\"is_baby\":true,"
+                        + "\"species\":{\"name\":\"pichu\",\"url\":\"" + pokeApi.baseUrl() + "/pokemon-species/172/\"},"
+                        + "\"evolves_to\":[{\"species\":{\"name\":\"pikachu\",\"url\":\"" + pokeApi.baseUrl()
+                        + "/pokemon-species/25/\"},\"evolves_to\":[{\"species\":{\"name\":\"raichu\",\"url\":\""
+                        + pokeApi.baseUrl() + "/pokemon-species/26/\"},\"evolves_to\":[]}]}]}}");
+
+        // Snapshot disabled: every miss goes to the stub
+        SnapshotService snapshotService = new SnapshotService(new SnapshotRepository(new JdbcTemplate()),
+                new ObjectMapper());
+        PokemonService pokemonService = new PokemonService(WebClient.create(pokeApi.baseUrl()),
+                new ReactiveCacheManager(new MockEnvironment()), snapshotService);
+        evolutionGraphService = new EvolutionGraphService(pokemonService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pokeApi.close();
+    }
+
+    @Test
+    void numericNamesResolveThroughTheSpeciesId() {
+        assertThat(evolutionGraphService.getEvolutionChain("25").block().getId()).isEqualTo(10L);
+
+        EvolutionLine line = evolutionGraphService.getEvolutionLine("25", false).block();
+        assertThat(line.getSpecies().getName()).isEqualTo("pikachu");
+        assertThat(line.getPrevious().getName()).isEqualTo("pichu");
+        assertThat(line.getNext()).extracting(EvolutionStage::getName).containsExactly("raichu");
+        assertThat(line.getLine()).extracting(EvolutionStage::getName).containsExactly("pichu", "pikachu", "raichu");
+        // Once the chain is merged, ids are answered from the graph
+        assertThat(pokeApi.hits("/pokemon-species/25")).isEqualTo(1);
+    }
+
+    @Test
+    void eachChainIsLoadedOnce() {
+        assertThat(evolutionGraphService.getEvolutionLine("pikachu", false).block().getChainId()).isEqualTo(10L);
+        assertThat(evolutionGraphService.getEvolutionLine("raichu", false).block().getPrevious().getName())
+                .isEqualTo("pikachu");
+        assertThat(evolutionGraphService.getEvolutionChain("25").block().getId()).isEqualTo(10L);
+
+        assertThat(pokeApi.hits("/evolution-chain/10/")).isEqualTo(1);
+        assertThat(pokeApi.hits("/pokemon-species/raichu")).isZero();
+        assertThat(evolutionGraphService.current().chainCount()).isEqualTo(1);
+    }
+
+    @Test
+    void speciesWithoutAChainIsNotFound() {
+        assertThatThrownBy(() -> evolutionGraphService.getEvolutionLine("missingno", false).block())
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static String species(long id, String name, String chainUrl) {
+        return "{\"id\":" + id + ",\"name\":\"" + name + "\",\"evolution_chain\":{\"url\":\"" + chainUrl + "\"}}";
+    }
+}
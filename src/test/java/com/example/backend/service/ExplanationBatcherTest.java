@@ -0,0 +1,128 @@
+package com.example.backend.service;
+
+import com.example.backend.ai.AIRequestScheduler;
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonType;
+import com.example.backend.models.type.Type;
+import com.example.backend.support.StubAIProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExplanationBatcherTest {
+
+    private final Pokemon bulbasaur = pokemon(1, "bulbasaur", 7, 69, "grass");
+
+    private StubAIProvider provider;
+    private AIService aiService;
+    private ExplanationBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        // Answers one numbered line for each pair in the prompt
+        provider = StubAIProvider.start().respondWith(prompt -> IntStream
+                .rangeClosed(1, (int) prompt.lines().filter(line -> line.matches("\\d+\\. .*")).count())
+                .mapToObj(id -> id + ": explicação " + id)
+                .collect(Collectors.joining("\n")));
+        aiService = new AIService(WebClient.create(provider.baseUrl()), new ObjectMapper(),
+                new AIRequestScheduler(4, 0, 0));
+        ReflectionTestUtils.setField(aiService, "aiModel", "test-model");
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+        provider.close();
+    }
+
+    @Test
+    void explainsCandidatesWithIncompleteRecords() {
+        batcher = new ExplanationBatcher(aiService, Duration.ofMillis(20), 8, 4, Duration.ofSeconds(5));
+        Pokemon missingno = new Pokemon();
+        missingno.setId(0L);
+        missingno.setName("missingno");
+
+        StepVerifier.create(batcher.explain(bulbasaur, List.of(missingno)))
+                .expectNext(Map.of(0L, "explicação 1"))
+                .verifyComplete();
+        assertThat(provider.prompts()).singleElement().asString()
+                .contains("Height: unknown, Weight: unknown, Base Experience: unknown");
+    }
+
+    @Test
+    void failedBatchFailsItsCallersButNotLaterOnes() {
+        batcher = new ExplanationBatcher(aiService, Duration.ofMillis(20), 8, 4, Duration.ofSeconds(5));
+        provider.failWith(500);
+        StepVerifier.create(batcher.explain(bulbasaur, List.of(pokemon(2, "ivysaur", 10, 130, "grass"))))
+                .expectError()
+                .verify(Duration.ofSeconds(5));
+
+        provider.failWith(0);
+        StepVerifier.create(batcher.explain(bulbasaur, List.of(pokemon(3, "venusaur", 20, 1000, "grass"))))
+                .expectNext(Map.of(3L, "explicação 1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void dropsCancelledCallersBeforeSendingTheirBatch() throws Exception {
+        batcher = new ExplanationBatcher(aiService, Duration.ofMillis(20), 8, 1, Duration.ofSeconds(5));
+        provider.hold();
+        CompletableFuture<Map<Long, String>> first = batcher
+                .explain(bulbasaur, List.of(pokemon(2, "ivysaur", 10, 130, "grass"))).toFuture();
+        provider.awaitPrompts(1, 5000);
+
+        // Both land behind the batch held at the provider
+        Disposable cancelled = batcher.explain(bulbasaur, List.of(pokemon(3, "venusaur", 20, 1000, "grass")))
+                .subscribe();
+        CompletableFuture<Map<Long, String>> waiting = batcher
+                .explain(bulbasaur, List.of(pokemon(4, "charmander", 6, 85, "fire"))).toFuture();
+        cancelled.dispose();
+
+        provider.release();
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsEntry(2L, "explicação 1");
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).containsEntry(4L, "explicação 1");
+        assertThat(provider.prompts()).hasSize(2).noneMatch(prompt -> prompt.contains("venusaur"));
+    }
+
+    @Test
+    void callersStopWaitingAfterTheTimeout() {
+        batcher = new ExplanationBatcher(aiService, Duration.ofMillis(20), 8, 4, Duration.ofMillis(200));
+        provider.hold();
+
+        StepVerifier.create(batcher.explain(bulbasaur, List.of(pokemon(2, "ivysaur", 10, 130, "grass"))))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private static Pokemon pokemon(long id, String name, int height, int weight, String typeName) {
+        Type type = new Type();
+        type.setName(typeName);
+        PokemonType slot = new PokemonType();
+        slot.setType(type);
+
+        Pokemon pokemon = new Pokemon();
+        pokemon.setId(id);
+        pokemon.setName(name);
+        pokemon.setHeight(height);
+        pokemon.setWeight(weight);
+        pokemon.setBaseExperience(64);
+        pokemon.setTypes(List.of(slot));
+        return pokemon;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.backend.service;
+
+import com.example.backend.ai.AIRequestScheduler;
+import com.example.backend.cache.ReactiveCacheManager;
+import com.example.backend.repository.GeneratedContentRepository;
+import com.example.backend.repository.PokedexWarmupRepository;
+import com.example.backend.repository.SnapshotRepository;
+import com.example.backend.support.StubAIProvider;
+import com.example.backend.support.StubHttpServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Warm-up against a stub PokeAPI and a stub AI provider
+class PokedexWarmupServiceTest {
+
+    private StubHttpServer pokeApi;
+    private StubAIProvider aiProvider;
+    private EmbeddedDatabase database;
+    private GeneratedContentRepository contentRepository;
+    private ReactiveCacheManager cacheManager;
+    private PokedexWarmupService warmupService;
+
+    @BeforeEach
+    void setUp() {
+        pokeApi = StubHttpServer.start();
+        String base = pokeApi.baseUrl();
+        // The last result has no id in its URL and must simply be skipped
+        pokeApi.json("/pokemon", "{\"count\":3,\"results\":["
+                + "{\"name\":\"bulbasaur\",\"url\":\"" + base + "/pokemon/1/\"},"
+                + "{\"name\":\"ivysaur\",\"url\":\"" + base + "/pokemon/2/\"},"
+                + "{\"name\":\"missingno\",\"url\":null}]}")
+                .json("/pokemon/1", pokemon(1, "bulbasaur"))
+                .json("/pokemon/2", pokemon(2, "ivysaur"));
+        aiProvider = StubAIProvider.start();
+
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(database);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        cacheManager = new ReactiveCacheManager(new MockEnvironment());
+
+        SnapshotService snapshotService = new SnapshotService(
+                new SnapshotRepository(new JdbcTemplate(database)), objectMapper);
+        PokemonService pokemonService = new PokemonService(WebClient.create(base), cacheManager, snapshotService);
+        AIService aiService = new AIService(WebClient.create(aiProvider.baseUrl()), objectMapper,
+                new AIRequestScheduler(4, 0, 0));
+        ReflectionTestUtils.setField(aiService, "aiModel", "test-model");
+
+        contentRepository = new GeneratedContentRepository(jdbcTemplate);
+        GeneratedContentCacheService contentCacheService = new GeneratedContentCacheService(contentRepository, objectMapper, cacheManager);
+        ReflectionTestUtils.setField(contentCacheService, "maxEntries", 5000);
+        ContentGenerationService contentGenerationService = new ContentGenerationService(pokemonService, aiService,
+                contentCacheService, null);
+        ReflectionTestUtils.setField(contentGenerationService, "contentTimeout", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(contentGenerationService, "imagePromptTimeout", Duration.ofSeconds(10));
+
+        warmupService = new PokedexWarmupService(pokemonService, contentGenerationService,
+                new PokedexWarmupRepository(jdbcTemplate));
+        ReflectionTestUtils.setField(warmupService, "formats", List.of("text"));
+        ReflectionTestUtils.setField(warmupService, "audiences", List.of("default"));
+        ReflectionTestUtils.setField(warmupService, "concurrency", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        aiProvider.close();
+        pokeApi.close();
+        database.shutdown();
+    }
+
+    @Test
+    void generatesEveryEntryOnceAndSkipsStoredOnesOnResume() throws Exception {
+        warmupService.warmUp().block(Duration.ofSeconds(30));
+
+        assertThat(aiProvider.prompts()).hasSize(2);
+        assertThat(warmupService.getProgress().getGeneratedCount()).isEqualTo(2);
+        assertThat(warmupService.getProgress().getFailedCount()).isZero();
+        assertThat(warmupService.isRunning()).isFalse();
+        awaitStoredEntries(2);
+
+        warmupService.warmUp().block(Duration.ofSeconds(30));
+        assertThat(aiProvider.prompts()).hasSize(2);
+        assertThat(warmupService.getProgress().getCompletedCount()).isEqualTo(2);
+        assertThat(warmupService.getProgress().getGeneratedCount()).isZero();
+    }
+
+    @Test
+    void regeneratesEntriesEvictedFromTheContentStore() throws Exception {
+        warmupService.warmUp().block(Duration.ofSeconds(30));
+        awaitStoredEntries(2);
+
+        // What the store does once content.cache.max-entries is exceeded
+        contentRepository.evictLeastRecentlyUsed(1).forEach(key -> cacheManager.getCache("generatedContent")
+                .invalidate(key));
+
+        warmupService.warmUp().block(Duration.ofSeconds(30));
+
+        assertThat(aiProvider.prompts()).hasSize(3);
+        assertThat(warmupService.getProgress().getGeneratedCount()).isEqualTo(1);
+        assertThat(warmupService.getProgress().getCompletedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void claimsTheRunOnSubscription() {
+        // Assembled but never subscribed, so it must not block the next run
+        Mono<Void> neverSubscribed = warmupService.warmUp();
+        assertThat(warmupService.isRunning()).isFalse();
+
+        warmupService.warmUp().block(Duration.ofSeconds(30));
+        assertThat(aiProvider.prompts()).hasSize(2);
+        assertThat(neverSubscribed).isNotNull();
+    }
+
+    @Test
+    void cancellingTheRunReleasesIt() throws Exception {
+        aiProvider.hold();
+        Disposable run = warmupService.warmUp().subscribe();
+        aiProvider.awaitPrompts(1, 5000);
+        assertThat(warmupService.isRunning()).isTrue();
+
+        run.dispose();
+        assertThat(warmupService.isRunning()).isFalse();
+        assertThat(warmupService.getProgress().getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void onlyOneOfConcurrentStartsClaimsTheRun() throws Exception {
+        aiProvider.hold();
+        assertThat(warmupService.tryStart()).isTrue();
+        assertThat(warmupService.tryStart()).isFalse();
+        aiProvider.awaitPrompts(1, 5000);
+
+        aiProvider.release();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (warmupService.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(warmupService.isRunning()).isFalse();
+        assertThat(warmupService.getProgress().getGeneratedCount()).isEqualTo(2);
+    }
+
+    // Generated content is written to H2 in the background
+    private void awaitStoredEntries(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (contentRepository.count() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(contentRepository.count()).isEqualTo(count);
+    }
+
+    private static String pokemon(long id, String name) {
+        return "{\"id\":" + id + ",\"name\":\"" + name + "\",\"height\":7,\"weight\":69,\"base_experience\":64,"
+                + "\"types\":[{\"slot\":1,\"type\":{\"name\":\"grass\",\"url\":\"\"}}]}";
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.ReactiveCacheManager;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonBatchResult;
+import com.example.backend.repository.SnapshotRepository;
+import com.example.backend.support.StubHttpServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PokemonServiceTest {
+
+    private StubHttpServer pokeApi;
+    private EmbeddedDatabase database;
+    private SnapshotService snapshotService;
+    private PokemonService pokemonService;
+
+    @BeforeEach
+    void setUp() {
+        pokeApi = StubHttpServer.start();
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        snapshotService = new SnapshotService(new SnapshotRepository(new JdbcTemplate(database)), objectMapper);
+        ReflectionTestUtils.setField(snapshotService, "enabled", true);
+        ReflectionTestUtils.setField(snapshotService, "baseUrl", pokeApi.baseUrl());
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cache.pokemonById.refresh-after", "PT0.05S");
+        environment.setConversionService(new ApplicationConversionService());
+        pokemonService = new PokemonService(WebClient.create(pokeApi.baseUrl()),
+                new ReactiveCacheManager(environment), snapshotService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pokeApi.close();
+        database.shutdown();
+    }
+
+    @Test
+    void staleEntriesAreRefreshedFromUpstreamAndWrittenBack() throws InterruptedException {
+        snapshotService.save(SnapshotService.POKEMON, 1, "bulbasaur", pokemon(1, "bulbasaur", 64)).block();
+        pokeApi.json("/pokemon/1", "{\"id\":1,\"name\":\"bulbasaur\",\"base_experience\":65}");
+
+        assertThat(pokemonService.getPokemonById(1L).block().getBaseExperience()).isEqualTo(64);
+        assertThat(pokeApi.hits("/pokemon/1")).isZero();
+
+        Thread.sleep(100);
+        // Served stale while the refresh goes to the upstream, not the snapshot
+        assertThat(pokemonService.getPokemonById(1L).block().getBaseExperience()).isEqualTo(64);
+        awaitValue(() -> pokemonService.getPokemonById(1L).block().getBaseExperience(), 65);
+        awaitValue(() -> snapshotService.findById(SnapshotService.POKEMON, 1, Pokemon.class).block()
+                .getBaseExperience(), 65);
+        assertThat(pokeApi.hits("/pokemon/1")).isPositive();
+    }
+
+    @Test
+    void numericKeysBypassTheKnownNamesGate() {
+        String base = pokeApi.baseUrl();
+        pokeApi.json("/pokemon", "{\"count\":1,\"results\":["
+                        + "{\"name\":\"pikachu\",\"url\":\"" + base + "/pokemon/25/\"}]}")
+                .json("/pokemon/25", "{\"id\":25,\"name\":\"pikachu\"}");
+        assertThat(pokemonService.refreshKnownNames().block()).isEqualTo(1);
+
+        assertThat(pokemonService.getPokemonByName("25").block().getName()).isEqualTo("pikachu");
+        assertThatThrownBy(() -> pokemonService.getPokemonByName("pikachuu").block())
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(pokeApi.hits("/pokemon/pikachuu")).isZero();
+    }
+
+    @Test
+    void batchKeepsRequestOrderAndReportsErrorsPerItem() {
+        ReflectionTestUtils.setField(pokemonService, "fanOutConcurrency", 4);
+        ReflectionTestUtils.setField(pokemonService, "fanOutItemTimeout", Duration.ofMillis(300));
+        ReflectionTestUtils.setField(pokemonService, "batchMaxSize", 10);
+        pokeApi.handle("/pokemon/7", exchange -> {
+            // Answers after the others, and after the item timeout
+            sleep(600);
+            return StubHttpServer.Response.json(200, "{\"id\":7,\"name\":\"squirtle\"}");
+        })
+                .handle("/pokemon/4", exchange -> {
+                    sleep(100);
+                    return StubHttpServer.Response.json(200, "{\"id\":4,\"name\":\"charmander\"}");
+                })
+                .json("/pokemon/pikachu", "{\"id\":25,\"name\":\"pikachu\"}");
+
+        List<PokemonBatchResult> results = pokemonService
+                .getPokemonBatch(List.of("4", "7", " Pikachu ", "missingno"))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(results).extracting(PokemonBatchResult::getKey).containsExactly("4", "7", " Pikachu ", "missingno");
+        assertThat(results.get(0).getPokemon().getName()).isEqualTo("charmander");
+        assertThat(results.get(1).getError()).isEqualTo("Tempo esgotado ao buscar o Pokémon: 7");
+        assertThat(results.get(2).getPokemon().getName()).isEqualTo("pikachu");
+        assertThat(results.get(3).getError()).isEqualTo("Pokémon não encontrado: missingno");
+    }
+
+    @Test
+    void batchRejectsEmptyEntriesAndOversizedBatches() {
+        ReflectionTestUtils.setField(pokemonService, "fanOutConcurrency", 4);
+        ReflectionTestUtils.setField(pokemonService, "batchMaxSize", 2);
+
+        assertThatThrownBy(() -> pokemonService.getPokemonBatch(Arrays.asList("1", null)).blockLast())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("posição 1");
+        assertThatThrownBy(() -> pokemonService.getPokemonBatch(List.of("1", " ")).blockLast())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pokemonService.getPokemonBatch(List.of("1", "2", "3")).blockLast())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no máximo 2");
+        assertThat(pokeApi.requests()).isEmpty();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitValue(Supplier<Integer> value, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Integer.valueOf(expected).equals(value.get()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(value.get()).isEqualTo(expected);
+    }
+
+    private static Pokemon pokemon(long id, String name, int baseExperience) {
+        Pokemon pokemon = new Pokemon();
+        pokemon.setId(id);
+        pokemon.setName(name);
+        pokemon.setBaseExperience(baseExperience);
+        return pokemon;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.backend.service;
+
+import com.example.backend.models.recommendation.RecommendationRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendationServiceTest {
+
+    private RecommendationService recommendationService;
+
+    @BeforeEach
+    void setUp() {
+        // The limit is checked before any Pokémon is looked up
+        recommendationService = new RecommendationService(null, null, null, null);
+        ReflectionTestUtils.setField(recommendationService, "maxLimit", 50);
+    }
+
+    @Test
+    void rejectsALimitAboveTheMaximum() {
+        StepVerifier.create(recommendationService.findSimilarPokemon(request(2_000_000_000)))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageContaining("50"))
+                .verify();
+    }
+
+    @Test
+    void rejectsANonPositiveLimit() {
+        StepVerifier.create(recommendationService.findSimilarPokemon(request(0)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(recommendationService.findSimilarPokemon(request(-3)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private static RecommendationRequest request(int limit) {
+        return RecommendationRequest.builder().pokemonName("pikachu").limit(limit).build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.backend.service;
+
+import com.example.backend.models.pokemon.Pokemon;
+import com.example.backend.models.pokemon.PokemonResponse;
+import com.example.backend.models.snapshot.SnapshotProgress;
+import com.example.backend.repository.SnapshotRepository;
+import com.example.backend.support.StubHttpServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotIngestionServiceTest {
+
+    private static final String EMPTY_LIST = "{\"count\":0,\"results\":[]}";
+
+    private StubHttpServer pokeApi;
+    private EmbeddedDatabase database;
+    private SnapshotService snapshotService;
+    private SnapshotIngestionService ingestionService;
+    private final AtomicBoolean bulbasaurAvailable = new AtomicBoolean(false);
+
+    @BeforeEach
+    void setUp() {
+        pokeApi = StubHttpServer.start();
+        String base = pokeApi.baseUrl();
+        pokeApi.json("/type", EMPTY_LIST)
+                .json("/generation", EMPTY_LIST)
+                .json("/pokemon-species", EMPTY_LIST)
+                .json("/evolution-chain", EMPTY_LIST)
+                .json("/move", EMPTY_LIST)
+                .json("/pokemon", "{\"count\":3,\"results\":["
+                        + "{\"name\":\"bulbasaur\",\"url\":\"" + base + "/pokemon/1/\"},"
+                        + "{\"name\":\"ivysaur\",\"url\":\"" + base + "/pokemon/2/\"},"
+                        + "{\"name\":\"venusaur\",\"url\":\"" + base + "/pokemon/3/\"}]}")
+                .handle("/pokemon/1", exchange -> bulbasaurAvailable.get()
+                        ? StubHttpServer.Response.json(200, pokemon(1, "bulbasaur"))
+                        : StubHttpServer.Response.json(503, "{}"))
+                .json("/pokemon/2", pokemon(2, "ivysaur"))
+                .json("/pokemon/3", pokemon(3, "venusaur"));
+
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        snapshotService = new SnapshotService(new SnapshotRepository(new JdbcTemplate(database)), new ObjectMapper());
+        ReflectionTestUtils.setField(snapshotService, "enabled", true);
+        ReflectionTestUtils.setField(snapshotService, "baseUrl", base);
+
+        ingestionService = new SnapshotIngestionService(WebClient.create(base), snapshotService);
+        ReflectionTestUtils.setField(ingestionService, "concurrency", 4);
+        ReflectionTestUtils.setField(ingestionService, "retries", 2);
+        ReflectionTestUtils.setField(ingestionService, "retryBackoff", Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pokeApi.close();
+        database.shutdown();
+    }
+
+    @Test
+    void failedEntriesLeaveTheResourceIncompleteButListable() {
+        ingestionService.ingestAll().block(Duration.ofSeconds(30));
+
+        SnapshotProgress progress = progressOf("pokemon");
+        assertThat(progress.getTotalCount()).isEqualTo(3);
+        assertThat(progress.getIngestedCount()).isEqualTo(2);
+        assertThat(progress.isCompleted()).isFalse();
+        // One attempt plus the configured retries
+        assertThat(pokeApi.hits("/pokemon/1")).isEqualTo(3);
+
+        PokemonResponse page = snapshotService.findPage("pokemon", 10, 0).block();
+        assertThat(page).isNotNull();
+        assertThat(page.getCount()).isEqualTo(3);
+        assertThat(page.getResults()).extracting("name").containsExactly("bulbasaur", "ivysaur", "venusaur");
+
+        assertThat(snapshotService.findById("pokemon", 1, Pokemon.class).block()).isNull();
+        assertThat(snapshotService.findByName("pokemon", "ivysaur", Pokemon.class).block().getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void resumedRunOnlyFetchesMissingEntriesAndCompletes() {
+        ingestionService.ingestAll().block(Duration.ofSeconds(30));
+        bulbasaurAvailable.set(true);
+
+        ingestionService.ingestAll().block(Duration.ofSeconds(30));
+
+        assertThat(pokeApi.hits("/pokemon/2")).isEqualTo(1);
+        assertThat(pokeApi.hits("/pokemon/3")).isEqualTo(1);
+        assertThat(progressOf("pokemon").isCompleted()).isTrue();
+        assertThat(snapshotService.findById("pokemon", 1, Pokemon.class).block().getName()).isEqualTo("bulbasaur");
+
+        // A completed resource is not listed or fetched again
+        int listCalls = pokeApi.hits("/pokemon");
+        ingestionService.ingestAll().block(Duration.ofSeconds(30));
+        assertThat(pokeApi.hits("/pokemon")).isEqualTo(listCalls);
+    }
+
+    @Test
+    void runningFlagIsOnlyTakenOnSubscription() {
+        ingestionService.ingestAll();
+        assertThat(ingestionService.isRunning()).isFalse();
+
+        ingestionService.ingestAll().block(Duration.ofSeconds(30));
+        assertThat(ingestionService.isRunning()).isFalse();
+        assertThat(progressOf("pokemon")).isNotNull();
+    }
+
+    @Test
+    void onlyOneOfConcurrentStartsClaimsTheRun() throws InterruptedException {
+        CountDownLatch listed = new CountDownLatch(1);
+        pokeApi.handle("/type", exchange -> {
+            try {
+                listed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return StubHttpServer.Response.json(200, EMPTY_LIST);
+        });
+
+        assertThat(ingestionService.tryStart()).isTrue();
+        assertThat(ingestionService.tryStart()).isFalse();
+        assertThat(ingestionService.isRunning()).isTrue();
+
+        listed.countDown();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (ingestionService.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(ingestionService.isRunning()).isFalse();
+        assertThat(progressOf("pokemon")).isNotNull();
+    }
+
+    @Test
+    void disabledSnapshotStoresNothing() {
+        ReflectionTestUtils.setField(snapshotService, "enabled", false);
+        ingestionService.ingestAll().block(Duration.ofSeconds(30));
+
+        assertThat(pokeApi.hits("/pokemon/2")).isZero();
+        ReflectionTestUtils.setField(snapshotService, "enabled", true);
+        assertThat(snapshotService.getProgress().block()).isEmpty();
+    }
+
+    private SnapshotProgress progressOf(String resource) {
+        return snapshotService.getProgress().block().stream()
+                .filter(progress -> progress.getResource().equals(resource))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String pokemon(long id, String name) {
+        return "{\"id\":" + id + ",\"name\":\"" + name + "\",\"height\":7,\"weight\":69,\"types\":[]}";
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.backend.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+// OpenAI-compatible /chat/completions stub. Records the user prompt of every
+// call in arrival order, answers with content derived from the prompt (as a
+// single JSON completion or as server-sent chunks when "stream" is set) and
+// can hold calls open until released, to simulate a slow provider.
+public final class StubAIProvider implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final StubHttpServer server;
+    private final List<String> prompts = new CopyOnWriteArrayList<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicReference<CountDownLatch> gate = new AtomicReference<>(new CountDownLatch(0));
+    private final CountDownLatch shutdown = new CountDownLatch(1);
+    private volatile Function<String, String> responder = prompt -> "Resposta para: " + prompt;
+    private volatile boolean holdStreamsOpen;
+    private volatile int failureStatus;
+
+    private StubAIProvider() {
+        this.server = StubHttpServer.start().handle("/chat/completions", this::complete);
+    }
+
+    public static StubAIProvider start() {
+        return new StubAIProvider();
+    }
+
+    public String baseUrl() {
+        return server.baseUrl();
+    }
+
+    public List<String> prompts() {
+        return prompts;
+    }
+
+    // Calls currently being answered (or held) by the stub
+    public int active() {
+        return active.get();
+    }
+
+    public StubAIProvider respondWith(Function<String, String> responder) {
+        this.responder = responder;
+        return this;
+    }
+
+    // Answers every call with the given error status (0 to answer normally)
+    public StubAIProvider failWith(int status) {
+        this.failureStatus = status;
+        return this;
+    }
+
+    // Calls received from now on wait until release()
+    public void hold() {
+        gate.set(new CountDownLatch(1));
+    }
+
+    public void release() {
+        gate.get().countDown();
+    }
+
+    // Streamed answers send their first chunk and then never finish
+    public void holdStreamsOpen() {
+        this.holdStreamsOpen = true;
+    }
+
+    public void awaitPrompts(int count, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (prompts.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdown.countDown();
+        release();
+        server.close();
+    }
+
+    private StubHttpServer.Response complete(HttpExchange exchange) {
+        active.incrementAndGet();
+        try {
+            JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+            String prompt = request.path("messages").path(1).path("content").asText();
+            prompts.add(prompt);
+            gate.get().await(30, TimeUnit.SECONDS);
+            if (failureStatus > 0) {
+                return StubHttpServer.Response.json(failureStatus, "{}");
+            }
+
+            String content = responder.apply(prompt);
+            if (!request.path("stream").asBoolean(false)) {
+                ObjectNode body = MAPPER.createObjectNode();
+                body.putArray("choices").addObject().putObject("message").put("content", content);
+                return StubHttpServer.Response.json(200, body.toString());
+            }
+            stream(exchange, content);
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return StubHttpServer.Response.json(500, "{}");
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private void stream(HttpExchange exchange, String content) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            String[] words = content.split(" ");
+            for (int i = 0; i < words.length; i++) {
+                ObjectNode chunk = MAPPER.createObjectNode();
+                chunk.putArray("choices").addObject().putObject("delta")
+                        .put("content", i == 0 ? words[i] : " " + words[i]);
+                out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (holdStreamsOpen) {
+                    shutdown.await(30, TimeUnit.SECONDS);
+                    return;
+                }
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.backend.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Minimal local HTTP stub for the PokeAPI and AI provider, built on the JDK
+// server so tests need no extra dependency. Handlers are matched by longest
+// path prefix and every request path (with query) is recorded.
+public final class StubHttpServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Map<String, Function<HttpExchange, Response>> routes = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    private StubHttpServer(HttpServer server) {
+        this.server = server;
+    }
+
+    public static StubHttpServer start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            StubHttpServer stub = new StubHttpServer(server);
+            server.createContext("/", stub::dispatch);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public StubHttpServer json(String path, String body) {
+        return handle(path, exchange -> Response.json(200, body));
+    }
+
+    public StubHttpServer status(String path, int status) {
+        return handle(path, exchange -> Response.json(status, "{}"));
+    }
+
+    public StubHttpServer handle(String path, Function<HttpExchange, Response> handler) {
+        routes.put(path, handler);
+        return this;
+    }
+
+    public List<String> requests() {
+        return requests;
+    }
+
+    public int hits(String path) {
+        AtomicInteger count = hits.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getRawQuery();
+        requests.add(query != null ? path + "?" + query : path);
+        hits.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+
+        Function<HttpExchange, Response> handler = null;
+        int matched = -1;
+        for (Map.Entry<String, Function<HttpExchange, Response>> route : routes.entrySet()) {
+            if (path.startsWith(route.getKey()) && route.getKey().length() > matched) {
+                handler = route.getValue();
+                matched = route.getKey().length();
+            }
+        }
+        Response response = handler != null ? handler.apply(exchange) : Response.json(404, "{}");
+        if (response == null) {
+            // The handler wrote (or deliberately abandoned) the exchange itself
+            return;
+        }
+
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", response.contentType);
+        exchange.sendResponseHeaders(response.status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    public static final class Response {
+        private final int status;
+        private final String contentType;
+        private final String body;
+
+        private Response(int status, String contentType, String body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public static Response json(int status, String body) {
+            return new Response(status, "application/json", body);
+        }
+
+        public static Response of(int status, String contentType, String body) {
+            return new Response(status, contentType, body);
+        }
+    }
+}